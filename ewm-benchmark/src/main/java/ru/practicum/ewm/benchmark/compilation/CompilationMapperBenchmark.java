@@ -0,0 +1,49 @@
+package ru.practicum.ewm.benchmark.compilation;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.ewm.benchmark.event.EventMapperBenchmark;
+import ru.practicum.ewm.compilation.dto.CompilationDto;
+import ru.practicum.ewm.compilation.mapper.CompilationMapper;
+import ru.practicum.ewm.compilation.model.Compilation;
+import ru.practicum.ewm.event.mapper.EventMapper;
+import ru.practicum.ewm.event.model.Event;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompilationMapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int events;
+
+    private Compilation compilation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Set<Event> eventSet = new HashSet<>();
+        for (long id = 1; id <= events; id++) {
+            eventSet.add(EventMapperBenchmark.event(id));
+        }
+        compilation = Compilation.builder()
+                .id(1L)
+                .events(eventSet)
+                .pinned(true)
+                .title("Compilation of " + events + " events")
+                .build();
+    }
+
+    @Benchmark
+    public CompilationDto toCompilationDto() {
+        return CompilationMapper.toCompilationDto(compilation, compilation.getEvents().stream()
+                .map(EventMapper::toEventShortDto)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.ewm.benchmark.event;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.event.dto.EventFullDto;
+import ru.practicum.ewm.event.dto.EventShortDto;
+import ru.practicum.ewm.event.mapper.EventMapper;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.location.model.Location;
+import ru.practicum.ewm.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMapperBenchmark {
+
+    private Event event;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        event = event(1L);
+    }
+
+    @Benchmark
+    public EventFullDto toEventFullDto() {
+        return EventMapper.toEventFullDto(event);
+    }
+
+    @Benchmark
+    public EventShortDto toEventShortDto() {
+        return EventMapper.toEventShortDto(event);
+    }
+
+    public static Event event(long id) {
+        LocalDateTime createdOn = LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(id);
+        return Event.builder()
+                .id(id)
+                .annotation("Annotation of the event number " + id + " long enough to pass validation")
+                .category(Category.builder().id(id % 10 + 1).name("Category " + (id % 10 + 1)).build())
+                .confirmedRequests(id % 50)
+                .createdOn(createdOn)
+                .description("Description of the event number " + id + " with a few more words in it")
+                .eventDate(createdOn.plusDays(30))
+                .initiator(User.builder().id(id % 100 + 1).email("user" + id + "@mail.ru").name("User " + id).build())
+                .location(Location.builder().id(id).lat(55.75).lon(37.61).build())
+                .paid(id % 2 == 0)
+                .participantLimit(100)
+                .publishedOn(createdOn.plusHours(1))
+                .requestModeration(true)
+                .state(ru.practicum.ewm.event.model.State.PUBLISHED)
+                .title("Event " + id)
+                .views(id * 10)
+                .build();
+    }
+}
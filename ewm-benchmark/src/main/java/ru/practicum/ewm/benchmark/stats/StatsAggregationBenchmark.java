@@ -0,0 +1,130 @@
+package ru.practicum.ewm.benchmark.stats;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.repository.*;
+import ru.practicum.ewm.server.stats.service.HitRollupBuffer;
+import ru.practicum.ewm.server.stats.service.IpSketchBuffer;
+import ru.practicum.ewm.server.stats.service.RecentHitCounters;
+import ru.practicum.ewm.server.stats.service.StatsServiceImpl;
+import ru.practicum.ewm.server.stats.service.TopUrisTracker;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsAggregationBenchmark {
+
+    private static final String APP = "ewm-main-service";
+    private static final int URIS = 100;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"7", "30"})
+    private int days;
+
+    @Param({"10000"})
+    private int hitsPerDay;
+
+    private SingleConnectionDataSource dataSource;
+    private StatsServiceImpl statsService;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private String[] someUris;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:stats-aggregation-" + days
+                + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE stats_app (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "app VARCHAR(50) NOT NULL UNIQUE)");
+        jdbcTemplate.execute("CREATE TABLE stats_uri (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "uri VARCHAR(1000) NOT NULL UNIQUE)");
+        jdbcTemplate.execute("CREATE TABLE endpointhit (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "app_id INTEGER NOT NULL, uri_id INTEGER NOT NULL, ip VARCHAR(50) NOT NULL, " +
+                "timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX endpointhit_uri_timestamp_idx ON endpointhit (uri_id, timestamp)");
+        jdbcTemplate.execute("CREATE INDEX endpointhit_timestamp_idx ON endpointhit (timestamp)");
+        jdbcTemplate.execute("CREATE TABLE endpointhit_rollup (app VARCHAR(50) NOT NULL, uri VARCHAR(1000) NOT NULL, " +
+                "bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL, hits BIGINT NOT NULL, PRIMARY KEY (app, uri, bucket))");
+
+        jdbcTemplate.update("INSERT INTO stats_app (app) VALUES (?)", APP);
+        List<Object[]> uris = new ArrayList<>(URIS);
+        for (int uri = 1; uri <= URIS; uri++) {
+            uris.add(new Object[]{"/events/" + uri});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stats_uri (uri) VALUES (?)", uris);
+
+        Random random = new Random(42);
+        for (int day = 0; day < days; day++) {
+            LocalDateTime dayStart = FIRST_DAY.plusDays(day);
+            List<Object[]> hits = new ArrayList<>(hitsPerDay);
+            for (int i = 0; i < hitsPerDay; i++) {
+                hits.add(new Object[]{1, 1 + (int) Math.floor(Math.pow(random.nextDouble(), 3) * URIS),
+                        "10." + random.nextInt(64) + "." + random.nextInt(256) + "." + random.nextInt(256),
+                        Timestamp.valueOf(dayStart.plusSeconds(random.nextInt(86_400)))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO endpointhit (app_id, uri_id, ip, timestamp) VALUES (?, ?, ?, ?)", hits);
+        }
+        jdbcTemplate.execute("INSERT INTO endpointhit_rollup (app, uri, bucket, hits) " +
+                "SELECT stats_app.app, stats_uri.uri, DATE_TRUNC('HOUR', endpointhit.timestamp), COUNT(*) " +
+                "FROM endpointhit JOIN stats_app ON stats_app.id = endpointhit.app_id " +
+                "JOIN stats_uri ON stats_uri.id = endpointhit.uri_id " +
+                "GROUP BY stats_app.app, stats_uri.uri, DATE_TRUNC('HOUR', endpointhit.timestamp)");
+
+        StatsDictionaryRepository dictionaryRepository = new StatsDictionaryRepository(jdbcTemplate, 100_000);
+        StatsSketchRepository sketchRepository = new StatsSketchRepository(jdbcTemplate);
+        StatsRollupRepository rollupRepository = new StatsRollupRepository(jdbcTemplate);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        statsService = new StatsServiceImpl(new StatsRepository(jdbcTemplate, dictionaryRepository),
+                new StatsBatchRepository(jdbcTemplate, dictionaryRepository),
+                rollupRepository,
+                sketchRepository,
+                new TopUrisTracker(24, 1000),
+                new RecentHitCounters(true, 1440),
+                new IpSketchBuffer(sketchRepository, transactionTemplate),
+                new HitRollupBuffer(rollupRepository, transactionTemplate));
+        start = FIRST_DAY.plusMinutes(30);
+        end = FIRST_DAY.plusDays(days).minusMinutes(30);
+        someUris = new String[]{"/events/1", "/events/2", "/events/3", "/events/50", "/events/100"};
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<ViewStats> allHits() {
+        return statsService.getStats(start, end, null, false);
+    }
+
+    @Benchmark
+    public List<ViewStats> uriHits() {
+        return statsService.getStats(start, end, someUris, false);
+    }
+
+    @Benchmark
+    public List<ViewStats> allUniqueHits() {
+        return statsService.getStats(start, end, null, true);
+    }
+
+    @Benchmark
+    public List<ViewStats> uriUniqueHits() {
+        return statsService.getStats(start, end, someUris, true);
+    }
+}
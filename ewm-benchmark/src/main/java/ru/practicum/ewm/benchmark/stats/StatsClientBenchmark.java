@@ -0,0 +1,94 @@
+package ru.practicum.ewm.benchmark.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
+import ru.practicum.ewm.client.stats.StatsCircuitBreaker;
+import ru.practicum.ewm.client.stats.StatsClient;
+import ru.practicum.ewm.client.stats.StatsConnectionPool;
+import ru.practicum.ewm.dto.stats.ViewStats;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsClientBenchmark {
+
+    private static final byte[] EMPTY_STATS = "[]".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"1", "10", "100"})
+    private int uriCount;
+
+    private StatsConnectionPool connectionPool;
+    private StatsClient statsClient;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<String> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionPool = new StatsConnectionPool(1, 1, 1000, 500, 3000, 15000, 0, 100);
+        statsClient = new StatsClient("http://localhost:9090", false, 1, 1, 1000, false,
+                new RestTemplateBuilder().additionalInterceptors((request, body, execution) -> new EmptyStatsResponse()),
+                connectionPool, new StatsCircuitBreaker(false, 5, 30000), new SimpleMeterRegistry());
+        start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        end = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+        uris = new ArrayList<>(uriCount);
+        for (int i = 1; i <= uriCount; i++) {
+            uris.add("/events/" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        statsClient.shutdown();
+        connectionPool.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<List<ViewStats>> getStats() {
+        return statsClient.getStats(start, end, uris, true);
+    }
+
+    private static class EmptyStatsResponse implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(EMPTY_STATS.length);
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(EMPTY_STATS);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.ewm.benchmark.stats;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.ewm.server.stats.sketch.HyperLogLog;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UniqueIpBenchmark {
+
+    private static final String APP = "ewm-main-service";
+    private static final int URIS = 5;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"30", "365"})
+    private int days;
+
+    @Param({"500"})
+    private int hitsPerUriPerDay;
+
+    private Connection connection;
+    private Timestamp start;
+    private Timestamp end;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:unique-ip-" + days + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE endpointhit (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "app VARCHAR(50) NOT NULL, uri VARCHAR(1000) NOT NULL, ip VARCHAR(50) NOT NULL, " +
+                    "timestamp TIMESTAMP WITHOUT TIME ZONE)");
+            statement.execute("CREATE TABLE endpointhit_ip_sketch (app VARCHAR(50) NOT NULL, " +
+                    "uri VARCHAR(1000) NOT NULL, day_bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL, " +
+                    "sketch VARBINARY NOT NULL, PRIMARY KEY (app, uri, day_bucket))");
+        }
+
+        Random random = new Random(42);
+        try (PreparedStatement hits = connection.prepareStatement(
+                "INSERT INTO endpointhit (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)");
+             PreparedStatement sketches = connection.prepareStatement(
+                     "INSERT INTO endpointhit_ip_sketch (app, uri, day_bucket, sketch) VALUES (?, ?, ?, ?)")) {
+            for (int day = 0; day < days; day++) {
+                LocalDateTime dayStart = FIRST_DAY.plusDays(day);
+                for (int uri = 1; uri <= URIS; uri++) {
+                    HyperLogLog sketch = new HyperLogLog();
+                    for (int i = 0; i < hitsPerUriPerDay; i++) {
+                        String ip = "10." + random.nextInt(64) + "." + random.nextInt(256) + "." + random.nextInt(256);
+                        hits.setString(1, APP);
+                        hits.setString(2, "/events/" + uri);
+                        hits.setString(3, ip);
+                        hits.setTimestamp(4, Timestamp.valueOf(dayStart.plusSeconds(random.nextInt(86_400))));
+                        hits.addBatch();
+                        sketch.add(ip);
+                    }
+                    sketches.setString(1, APP);
+                    sketches.setString(2, "/events/" + uri);
+                    sketches.setTimestamp(3, Timestamp.valueOf(dayStart));
+                    sketches.setBytes(4, sketch.toBytes());
+                    sketches.addBatch();
+                }
+                hits.executeBatch();
+            }
+            sketches.executeBatch();
+        }
+        start = Timestamp.valueOf(FIRST_DAY);
+        end = Timestamp.valueOf(FIRST_DAY.plusDays(days));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void exactCountDistinct(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT app, uri, COUNT(DISTINCT ip) FROM endpointhit " +
+                        "WHERE timestamp >= ? AND timestamp < ? GROUP BY app, uri")) {
+            statement.setTimestamp(1, start);
+            statement.setTimestamp(2, end);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(3));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void mergedSketches(Blackhole blackhole) throws SQLException {
+        Map<String, HyperLogLog> merged = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT app, uri, sketch FROM endpointhit_ip_sketch WHERE day_bucket >= ? AND day_bucket < ?")) {
+            statement.setTimestamp(1, start);
+            statement.setTimestamp(2, end);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes(3));
+                    merged.merge(rs.getString(1) + '\n' + rs.getString(2), sketch, (old, added) -> {
+                        old.merge(added);
+                        return old;
+                    });
+                }
+            }
+        }
+        merged.values().forEach(sketch -> blackhole.consume(sketch.cardinality()));
+    }
+}
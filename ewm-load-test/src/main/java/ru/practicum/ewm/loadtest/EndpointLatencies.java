@@ -0,0 +1,76 @@
+package ru.practicum.ewm.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class EndpointLatencies {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, boolean success) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, success);
+    }
+
+    public void addAll(EndpointLatencies other) {
+        other.samples.forEach((endpoint, added) -> samples.computeIfAbsent(endpoint, key -> new Samples()).addAll(added));
+    }
+
+    public String report(double seconds) {
+        StringBuilder report = new StringBuilder(String.format("%-36s %9s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        Samples total = new Samples();
+        samples.forEach((endpoint, endpointSamples) -> {
+            appendLine(report, endpoint, endpointSamples, seconds);
+            total.addAll(endpointSamples);
+        });
+        appendLine(report, "TOTAL", total, seconds);
+        return report.toString();
+    }
+
+    private static void appendLine(StringBuilder report, String endpoint, Samples endpointSamples, double seconds) {
+        long[] sorted = Arrays.copyOf(endpointSamples.nanos, endpointSamples.count);
+        Arrays.sort(sorted);
+        report.append(String.format("%-36s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n", endpoint, sorted.length,
+                sorted.length / seconds, endpointSamples.errors, millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.99)), millis(percentile(sorted, 0.999)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        private void add(long value, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.ewm.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+
+public class LoadScenario {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int CATEGORIES = 10;
+    private static final int COMPILATIONS = 10;
+    private static final int EVENTS_PER_COMPILATION = 10;
+    private static final int COMMENTS_PER_EVENT = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> eventIds = new ArrayList<>();
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    public LoadScenario(HttpClient httpClient, String baseUrl) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.operations = List.of(
+                new Operation("GET /events", 25, random -> get("/events?from=0&size=10&sort="
+                        + (random.nextBoolean() ? "VIEWS" : "EVENT_DATE") + "&categories=" + pick(random, categoryIds))),
+                new Operation("GET /events?text", 5, random -> get("/events?text=event&from=0&size=10")),
+                new Operation("GET /events/{id}", 30, random -> get("/events/" + pick(random, eventIds))),
+                new Operation("GET /events/{id}/comments", 8, random -> get("/events/" + pick(random, eventIds)
+                        + "/comments")),
+                new Operation("GET /categories", 5, random -> get("/categories?from=0&size=10")),
+                new Operation("GET /compilations", 5, random -> get("/compilations?pinned=true&from=0&size=10")),
+                new Operation("GET /users/{id}/events", 5, random -> get("/users/" + pick(random, userIds)
+                        + "/events?from=0&size=10")),
+                new Operation("GET /users/{id}/requests", 3, random -> get("/users/" + pick(random, userIds)
+                        + "/requests")),
+                new Operation("POST /users/{id}/requests", 4, random -> post("/users/" + pick(random, userIds)
+                        + "/requests?eventId=" + pick(random, eventIds), null)),
+                new Operation("POST /events/{id}/comments", 3, random -> {
+                    long eventId = pick(random, eventIds);
+                    return post("/events/" + eventId + "/comments", comment(eventId, pick(random, userIds)));
+                }),
+                new Operation("POST /users/{id}/events", 2, random -> post("/users/" + pick(random, userIds) + "/events",
+                        newEvent(random.nextInt(1_000_000), LocalDateTime.now().plusDays(60).withNano(0)))),
+                new Operation("GET /admin/events", 4, random -> get("/admin/events?states=PUBLISHED&from=0&size=10")),
+                new Operation("PATCH /admin/categories/{id}", 1, random -> patch("/admin/categories/"
+                        + pick(random, categoryIds), Map.of("name", "Load category " + random.nextInt(1_000_000)))),
+                new Operation("GET /admin/users", 2, random -> get("/admin/users?from=0&size=10")));
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    public void seed(int users, int events) throws IOException, InterruptedException {
+        for (int i = 1; i <= users; i++) {
+            userIds.add(create("/admin/users", Map.of("name", "Load user " + i, "email", "load.user" + i + "@mail.ru")));
+        }
+        for (int i = 1; i <= CATEGORIES; i++) {
+            categoryIds.add(create("/admin/categories", Map.of("name", "Load category " + i)));
+        }
+        LocalDateTime firstEventDate = LocalDateTime.now().plusDays(30).withNano(0);
+        for (int i = 0; i < events; i++) {
+            long userId = userIds.get(i % userIds.size());
+            long eventId = create("/users/" + userId + "/events", newEvent(i, firstEventDate.plusMinutes(i)));
+            exchange(patch("/admin/events/" + eventId, Map.of("stateAction", "PUBLISH_EVENT")));
+            eventIds.add(eventId);
+            for (int c = 0; c < COMMENTS_PER_EVENT; c++) {
+                exchange(post("/events/" + eventId + "/comments", comment(eventId, userIds.get((i + c + 1) % users))));
+            }
+        }
+        for (int i = 0; i < COMPILATIONS; i++) {
+            List<Long> compilationEvents = eventIds.subList(i * EVENTS_PER_COMPILATION % eventIds.size(),
+                    Math.min(eventIds.size(), i * EVENTS_PER_COMPILATION % eventIds.size() + EVENTS_PER_COMPILATION));
+            create("/admin/compilations", Map.of("title", "Load compilation " + i, "pinned", i % 2 == 0,
+                    "events", compilationEvents));
+        }
+    }
+
+    public Operation nextOperation(Random random) {
+        int point = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            point -= operation.weight();
+            if (point < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    public HttpResponse<Void> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private long create(String path, Object body) throws IOException, InterruptedException {
+        return objectMapper.readTree(exchange(post(path, body)).body()).get("id").asLong();
+    }
+
+    private HttpResponse<String> exchange(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding " + request.method() + " " + request.uri().getPath()
+                    + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private Map<String, Object> newEvent(int number, LocalDateTime eventDate) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("annotation", "Annotation of load event " + number + " for the mixed traffic run");
+        event.put("category", categoryIds.get(number % categoryIds.size()));
+        event.put("description", "Description of load event " + number + " with enough words to be realistic");
+        event.put("eventDate", eventDate.format(DATE_TIME_FORMATTER));
+        event.put("location", Map.of("lat", 55.75, "lon", 37.61));
+        event.put("paid", number % 2 == 0);
+        event.put("participantLimit", 0);
+        event.put("requestModeration", false);
+        event.put("title", "Load event " + number);
+        return event;
+    }
+
+    private Map<String, Object> comment(long eventId, long authorId) {
+        return Map.of("text", "Comment from user " + authorId, "event", eventId, "author", authorId);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return request(path).POST(body(body)).build();
+    }
+
+    private HttpRequest patch(String path, Object body) {
+        return request(path).method("PATCH", body(body)).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private static long pick(Random random, List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    public record Operation(String endpoint, int weight, Function<Random, HttpRequest> request) {
+    }
+}
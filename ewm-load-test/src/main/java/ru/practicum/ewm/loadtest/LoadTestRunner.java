@@ -0,0 +1,160 @@
+package ru.practicum.ewm.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ewm.MainServiceApp;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+public class LoadTestRunner {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "database", "postgres",
+            "concurrency", "32",
+            "warmup-seconds", "10",
+            "duration-seconds", "60",
+            "users", "100",
+            "events", "1000",
+            "seed", "42",
+            "stats-latency-ms", "0");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        EmbeddedPostgres postgres = null;
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.practicum.ewm.loadtest=INFO"));
+        switch (options.get("database")) {
+            case "postgres" -> {
+                postgres = EmbeddedPostgres.builder().start();
+                appArgs.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+                appArgs.add("--spring.datasource.username=postgres");
+                appArgs.add("--spring.datasource.password=");
+            }
+            case "h2" -> {
+                appArgs.add("--spring.datasource.url=jdbc:h2:mem:ewm;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+                        + ";DEFAULT_NULL_ORDERING=HIGH");
+                appArgs.add("--spring.datasource.username=sa");
+                appArgs.add("--spring.datasource.password=");
+                appArgs.add("--spring.datasource.driver-class-name=org.h2.Driver");
+                appArgs.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+                appArgs.add("--spring.jpa.hibernate.ddl-auto=create");
+                appArgs.add("--spring.flyway.enabled=false");
+            }
+            default -> {
+                appArgs.add("--spring.datasource.url=" + options.get("database"));
+                appArgs.add("--spring.datasource.username=" + options.getOrDefault("username", "postgres"));
+                appArgs.add("--spring.datasource.password=" + options.getOrDefault("password", ""));
+            }
+        }
+        options.forEach((name, value) -> {
+            if (name.startsWith("app.")) {
+                appArgs.add("--" + name.substring(4) + "=" + value);
+            }
+        });
+
+        try (StatsServerStub statsServer = new StatsServerStub(Long.parseLong(options.get("stats-latency-ms")))) {
+            appArgs.add("--stats-server.url=" + statsServer.getUrl());
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServiceApp.class)
+                    .run(appArgs.toArray(String[]::new));
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                boolean virtualThreads = context.getEnvironment()
+                        .getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+                run(options, "http://localhost:" + port, statsServer, virtualThreads);
+            } finally {
+                context.close();
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static void run(Map<String, String> options, String baseUrl, StatsServerStub statsServer,
+                            boolean virtualThreads) throws Exception {
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LoadScenario scenario = new LoadScenario(httpClient, baseUrl);
+
+        long seedStart = System.nanoTime();
+        scenario.seed(Integer.parseInt(options.get("users")), Integer.parseInt(options.get("events")));
+        log.info("Seeded {} users and {} events in {} ms", options.get("users"), options.get("events"),
+                (System.nanoTime() - seedStart) / 1_000_000);
+
+        long seed = Long.parseLong(options.get("seed"));
+        log.info("Warming up for {} s with {} clients", options.get("warmup-seconds"), concurrency);
+        drive(scenario, concurrency, Integer.parseInt(options.get("warmup-seconds")), seed);
+        int durationSeconds = Integer.parseInt(options.get("duration-seconds"));
+        log.info("Measuring for {} s with {} clients", durationSeconds, concurrency);
+        long measureStart = System.nanoTime();
+        EndpointLatencies latencies = drive(scenario, concurrency, durationSeconds, seed + 1);
+        double seconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+
+        System.out.printf("%nDatabase: %s, virtual threads: %s, clients: %d, duration: %.1f s%n"
+                        + "Stats stub: %d ms latency, %d hit and %d stats requests%n%n",
+                options.get("database"), virtualThreads, concurrency, seconds,
+                Long.parseLong(options.get("stats-latency-ms")), statsServer.getHitRequests(),
+                statsServer.getStatsRequests());
+        System.out.print(latencies.report(seconds));
+    }
+
+    private static EndpointLatencies drive(LoadScenario scenario, int concurrency, int seconds, long seed)
+            throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<EndpointLatencies>> clients = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                Random random = new Random(seed * 1_000 + i);
+                clients.add(executor.submit(() -> {
+                    EndpointLatencies latencies = new EndpointLatencies();
+                    while (System.nanoTime() < deadline) {
+                        LoadScenario.Operation operation = scenario.nextOperation(random);
+                        long start = System.nanoTime();
+                        boolean success;
+                        try {
+                            HttpResponse<Void> response = scenario.send(operation.request().apply(random));
+                            success = response.statusCode() / 100 == 2;
+                        } catch (IOException e) {
+                            success = false;
+                        }
+                        latencies.record(operation.endpoint(), System.nanoTime() - start, success);
+                    }
+                    return latencies;
+                }));
+            }
+            EndpointLatencies merged = new EndpointLatencies();
+            for (Future<EndpointLatencies> client : clients) {
+                merged.addAll(client.get());
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
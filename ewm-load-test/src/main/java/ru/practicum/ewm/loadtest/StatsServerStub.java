@@ -0,0 +1,142 @@
+package ru.practicum.ewm.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.practicum.ewm.dto.stats.EndpointHitBatchResult;
+import ru.practicum.ewm.dto.stats.EndpointHitDto;
+import ru.practicum.ewm.dto.stats.ViewStats;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StatsServerStub implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, UriHits> hitsByUri = new ConcurrentHashMap<>();
+    private final AtomicLong hitRequests = new AtomicLong();
+    private final AtomicLong statsRequests = new AtomicLong();
+    private final long latencyMs;
+    private final HttpServer server;
+
+    public StatsServerStub(long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "10000");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/hit", this::handleHit);
+        server.createContext("/stats", this::handleStats);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getHitRequests() {
+        return hitRequests.get();
+    }
+
+    public long getStatsRequests() {
+        return statsRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handleHit(HttpExchange exchange) throws IOException {
+        hitRequests.incrementAndGet();
+        if ("/hit/batch".equals(exchange.getRequestURI().getPath())) {
+            EndpointHitDto[] hits = objectMapper.readValue(exchange.getRequestBody(), EndpointHitDto[].class);
+            for (EndpointHitDto hit : hits) {
+                record(hit);
+            }
+            respond(exchange, 201, EndpointHitBatchResult.builder()
+                    .received(hits.length)
+                    .saved(hits.length)
+                    .rejected(0)
+                    .build());
+        } else {
+            EndpointHitDto hit = objectMapper.readValue(exchange.getRequestBody(), EndpointHitDto.class);
+            record(hit);
+            respond(exchange, 201, hit);
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        statsRequests.incrementAndGet();
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        Map<String, List<String>> params = queryParams(exchange.getRequestURI().getRawQuery());
+        boolean unique = Boolean.parseBoolean(params.getOrDefault("unique", List.of("false")).get(0));
+        Collection<String> uris = params.containsKey("uris") ? params.get("uris") : hitsByUri.keySet();
+        List<ViewStats> stats = new ArrayList<>();
+        for (String uri : uris) {
+            UriHits uriHits = hitsByUri.get(uri);
+            if (uriHits != null) {
+                stats.add(ViewStats.builder()
+                        .app(uriHits.app)
+                        .uri(uri)
+                        .hits(unique ? uriHits.ips.size() : (int) uriHits.hits.get())
+                        .build());
+            }
+        }
+        stats.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        respond(exchange, 200, stats);
+    }
+
+    private void record(EndpointHitDto hit) {
+        UriHits uriHits = hitsByUri.computeIfAbsent(hit.getUri(), uri -> new UriHits(hit.getApp()));
+        uriHits.hits.incrementAndGet();
+        uriHits.ips.add(hit.getIp());
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, List<String>> queryParams(String query) {
+        Map<String, List<String>> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            params.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static class UriHits {
+        private final String app;
+        private final AtomicLong hits = new AtomicLong();
+        private final Set<String> ips = ConcurrentHashMap.newKeySet();
+
+        private UriHits(String app) {
+            this.app = app;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.ewm.category.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewm.category.dto.CategoryDto;
 import ru.practicum.ewm.category.service.CategoryService;
+import ru.practicum.ewm.pagination.PageCursor;
 
 import java.util.List;
 
@@ -19,8 +21,13 @@ public class CategoryPublicController {
     private final CategoryService categoryService;
 
     @GetMapping
-    public List<CategoryDto> getCategoryPublic(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from, @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return categoryService.getCategoryPublic(from, size);
+    public List<CategoryDto> getCategoryPublic(HttpServletResponse response,
+                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                               @RequestParam(required = false) String after) {
+        List<CategoryDto> categories = categoryService.getCategoryPublic(from, size, after);
+        PageCursor.writeNext(response, categories, size, category -> PageCursor.encode(category.getId()));
+        return categories;
     }
 
     @GetMapping("/{catId}")
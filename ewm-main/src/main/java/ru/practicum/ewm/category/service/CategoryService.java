@@ -12,7 +12,7 @@ public interface CategoryService {
 
     void deleteCategoryAdmin(Long catId);
 
-    List<CategoryDto> getCategoryPublic(Integer from, Integer size);
+    List<CategoryDto> getCategoryPublic(Integer from, Integer size, String after);
 
     CategoryDto getCategoryByIdPublic(Long catId);
 }
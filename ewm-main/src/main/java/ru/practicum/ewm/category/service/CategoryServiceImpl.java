@@ -1,9 +1,8 @@
 package ru.practicum.ewm.category.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.category.dto.CategoryDto;
@@ -12,20 +11,24 @@ import ru.practicum.ewm.category.mapper.CategoryMapper;
 import ru.practicum.ewm.category.model.Category;
 import ru.practicum.ewm.category.repository.CategoryRepository;
 import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.event.service.EventDetailsCache;
 import ru.practicum.ewm.exception.DuplicateNameException;
 import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.exception.ValidationExceptionFindCategory;
+import ru.practicum.ewm.pagination.PageCursor;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final EventDetailsCache eventDetailsCache;
+    private final CategorySnapshot categorySnapshot;
 
     @Transactional
     @Override
@@ -34,6 +37,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new DuplicateNameException("Category name " + newCategoryDto.getName()
                     + "already exists in the system.");
         }
+        categorySnapshot.refreshAfterCommit();
         return CategoryMapper.toCategoryDto(categoryRepository.save(CategoryMapper.toCategory(newCategoryDto)));
     }
 
@@ -50,6 +54,8 @@ public class CategoryServiceImpl implements CategoryService {
         }
         Category newCategory = CategoryMapper.toCategory(newCategoryDto);
         newCategory.setId(catId);
+        eventDetailsCache.clearAfterCommit();
+        categorySnapshot.refreshAfterCommit();
         return CategoryMapper.toCategoryDto(categoryRepository.save(newCategory));
     }
 
@@ -63,28 +69,38 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ValidationExceptionFindCategory("Category with ID " + catId + " not empty");
         }
         categoryRepository.deleteById(catId);
+        categorySnapshot.refreshAfterCommit();
     }
 
 
-    @Transactional
     @Override
-    public List<CategoryDto> getCategoryPublic(Integer from, Integer size) {
+    public List<CategoryDto> getCategoryPublic(Integer from, Integer size, String after) {
+        List<CategoryDto> categories = categorySnapshot.getAll();
+        int offset = after == null ? from / size * size : firstAfter(categories, PageCursor.decodeId(after));
+        if (offset >= categories.size()) {
+            return List.of();
+        }
+        return categories.subList(offset, Math.min(offset + size, categories.size()));
+    }
 
-        int pageNumber = from / size;
-        Pageable pageable = PageRequest.of(pageNumber, size);
 
-        return categoryRepository.findAll(pageable)
-                .stream()
-                .map(CategoryMapper::toCategoryDto)
-                .collect(Collectors.toList());
+    private int firstAfter(List<CategoryDto> categories, Long afterId) {
+        int low = 0;
+        int high = categories.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (categories.get(mid).getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
-
-    @Transactional
     @Override
     public CategoryDto getCategoryByIdPublic(Long catId) {
-        Optional<Category> result = categoryRepository.findById(catId);
-        return CategoryMapper.toCategoryDto(result
-                .orElseThrow(() -> new NotFoundException("Category with ID " + catId + " not found")));
+        return Optional.ofNullable(categorySnapshot.get(catId))
+                .orElseThrow(() -> new NotFoundException("Category with ID " + catId + " not found"));
     }
 }
\ No newline at end of file
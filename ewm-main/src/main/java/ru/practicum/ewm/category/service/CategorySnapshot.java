@@ -0,0 +1,121 @@
+package ru.practicum.ewm.category.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.category.dto.CategoryDto;
+import ru.practicum.ewm.category.mapper.CategoryMapper;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.repository.CategoryRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategorySnapshot {
+    private final CategoryRepository categoryRepository;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public List<CategoryDto> getAll() {
+        return current().ordered();
+    }
+
+    public CategoryDto get(Long catId) {
+        return current().byId().get(catId);
+    }
+
+    public CategoryDto toCategoryDto(Category category) {
+        if (category == null) {
+            return null;
+        }
+        CategoryDto categoryDto = get(category.getId());
+        return categoryDto != null ? categoryDto : load(category.getId());
+    }
+
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        refreshLock.lock();
+        try {
+            current = snapshot;
+            return current != null ? current : refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private CategoryDto load(Long catId) {
+        refreshLock.lock();
+        try {
+            Snapshot current = current();
+            CategoryDto categoryDto = current.byId().get(catId);
+            if (categoryDto != null) {
+                return categoryDto;
+            }
+            categoryDto = categoryRepository.findById(catId)
+                    .map(CategoryMapper::toCategoryDto)
+                    .orElse(null);
+            if (categoryDto != null) {
+                snapshot = current.with(categoryDto);
+            }
+            return categoryDto;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot refresh() {
+        refreshLock.lock();
+        try {
+            List<CategoryDto> ordered = categoryRepository.findAll(Sort.by("id")).stream()
+                    .map(CategoryMapper::toCategoryDto)
+                    .toList();
+            Map<Long, CategoryDto> byId = new HashMap<>();
+            ordered.forEach(categoryDto -> byId.put(categoryDto.getId(), categoryDto));
+            Snapshot refreshed = new Snapshot(ordered, Map.copyOf(byId));
+            snapshot = refreshed;
+            log.debug("Category snapshot refreshed, {} categories", ordered.size());
+            return refreshed;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private record Snapshot(List<CategoryDto> ordered, Map<Long, CategoryDto> byId) {
+
+        private Snapshot with(CategoryDto categoryDto) {
+            List<CategoryDto> withOrdered = new ArrayList<>(ordered);
+            withOrdered.add(categoryDto);
+            withOrdered.sort(Comparator.comparing(CategoryDto::getId));
+            Map<Long, CategoryDto> withById = new HashMap<>(byId);
+            withById.put(categoryDto.getId(), categoryDto);
+            return new Snapshot(List.copyOf(withOrdered), Map.copyOf(withById));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.comment.controllers;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -12,6 +13,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewm.comment.dto.CommentDto;
 import ru.practicum.ewm.comment.service.CommentService;
+import ru.practicum.ewm.pagination.PageCursor;
 
 import java.util.List;
 
@@ -33,10 +35,14 @@ public class CommentPrivateController {
 
     @GetMapping("/events/{eventId}/comments")
     public List<CommentDto> getComments(HttpServletRequest request,
+                                        HttpServletResponse response,
                                         @PathVariable Long eventId,
                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return commentService.getCommentsPrivate(eventId, from, size);
+                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                        @RequestParam(required = false) String after) {
+        List<CommentDto> comments = commentService.getCommentsPrivate(eventId, from, size, after);
+        PageCursor.writeNext(response, comments, size, comment -> PageCursor.encode(comment.getId()));
+        return comments;
     }
 
     @GetMapping("/comments/{commentId}")
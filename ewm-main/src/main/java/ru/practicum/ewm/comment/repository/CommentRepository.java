@@ -1,5 +1,6 @@
 package ru.practicum.ewm.comment.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.ewm.comment.model.Comment;
@@ -10,6 +11,8 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> getCommentByEventId(Long eventId, Pageable pageable);
 
+    List<Comment> findByEventIdAndIdGreaterThanOrderById(Long eventId, Long id, Limit limit);
+
     Comment getCommentById(Long commentId);
 
 }
\ No newline at end of file
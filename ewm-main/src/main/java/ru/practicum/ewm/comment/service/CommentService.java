@@ -11,7 +11,7 @@ public interface CommentService {
 
     CommentDto updateCommentPrivate(Long commentId, CommentDto commentDto);
 
-    List<CommentDto> getCommentsPrivate(Long eventId, Integer from, Integer size);
+    List<CommentDto> getCommentsPrivate(Long eventId, Integer from, Integer size, String after);
 
     CommentDto getCommentByIdPrivate(Long commentId);
 
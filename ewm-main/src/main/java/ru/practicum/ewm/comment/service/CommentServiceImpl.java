@@ -1,10 +1,13 @@
 package ru.practicum.ewm.comment.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.ewm.comment.dto.CommentDto;
 import ru.practicum.ewm.comment.mapper.CommentMapper;
@@ -13,6 +16,7 @@ import ru.practicum.ewm.comment.repository.CommentRepository;
 import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event.repository.EventRepository;
 import ru.practicum.ewm.exception.NotFoundException;
+import ru.practicum.ewm.pagination.PageCursor;
 import ru.practicum.ewm.user.model.User;
 import ru.practicum.ewm.user.repository.UserRepository;
 
@@ -21,6 +25,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
@@ -66,12 +71,18 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public List<CommentDto> getCommentsPrivate(Long eventId, Integer from, Integer size) {
-
-        int pageNumber = from / size;
-        Pageable pageable = PageRequest.of(pageNumber, size);
+    public List<CommentDto> getCommentsPrivate(Long eventId, Integer from, Integer size, String after) {
+        List<Comment> comments;
+        if (after != null) {
+            comments = commentRepository.findByEventIdAndIdGreaterThanOrderById(eventId, PageCursor.decodeId(after),
+                    Limit.of(size));
+        } else {
+            int pageNumber = from / size;
+            Pageable pageable = PageRequest.of(pageNumber, size, Sort.by("id"));
+            comments = commentRepository.getCommentByEventId(eventId, pageable);
+        }
 
-        List<CommentDto> commentsDto = commentRepository.getCommentByEventId(eventId, pageable).stream()
+        List<CommentDto> commentsDto = comments.stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
         if (commentsDto.isEmpty()) {
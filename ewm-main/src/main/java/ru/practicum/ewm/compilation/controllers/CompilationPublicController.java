@@ -1,6 +1,7 @@
 package ru.practicum.ewm.compilation.controllers;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewm.compilation.dto.CompilationDto;
 import ru.practicum.ewm.compilation.service.CompilationService;
+import ru.practicum.ewm.pagination.PageCursor;
 
 import java.util.List;
 
@@ -21,11 +23,15 @@ public class CompilationPublicController {
 
     @GetMapping
     public List<CompilationDto> getCompilationsPublic(HttpServletRequest request,
+                                                      HttpServletResponse response,
                                                       @RequestParam(required = false, name = "pinned") Boolean pinned,
                                                       @PositiveOrZero
                                                           @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return compilationService.getCompilationsPublic(pinned, from, size);
+                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                      @RequestParam(required = false) String after) {
+        List<CompilationDto> compilations = compilationService.getCompilationsPublic(pinned, from, size, after);
+        PageCursor.writeNext(response, compilations, size, compilation -> PageCursor.encode(compilation.getId()));
+        return compilations;
     }
 
     @GetMapping("/{compId}")
@@ -4,22 +4,18 @@ import ru.practicum.ewm.compilation.dto.CompilationDto;
 import ru.practicum.ewm.compilation.dto.NewCompilationDto;
 import ru.practicum.ewm.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.ewm.compilation.model.Compilation;
-import ru.practicum.ewm.event.mapper.EventMapper;
+import ru.practicum.ewm.event.dto.EventShortDto;
 import ru.practicum.ewm.event.model.Event;
 
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class CompilationMapper {
 
-    public static CompilationDto toCompilationDto(Compilation compilation) {
+    public static CompilationDto toCompilationDto(Compilation compilation, List<EventShortDto> events) {
         return CompilationDto.builder()
                 .id(compilation.getId())
-                .events(compilation
-                        .getEvents()
-                        .stream()
-                        .map(EventMapper::toEventShortDto)
-                        .collect(Collectors.toList()))
+                .events(events)
                 .pinned(compilation.isPinned())
                 .title(compilation.getTitle())
                 .build();
@@ -1,5 +1,6 @@
 package ru.practicum.ewm.compilation.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.ewm.compilation.model.Compilation;
@@ -10,5 +11,9 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>
 
     List<Compilation> findByPinnedIs(Boolean pinned, Pageable pageable);
 
+    List<Compilation> findByPinnedIsAndIdGreaterThanOrderById(Boolean pinned, Long id, Limit limit);
+
+    List<Compilation> findByIdGreaterThanOrderById(Long id, Limit limit);
+
     void removeCompilationById(Long compId);
 }
\ No newline at end of file
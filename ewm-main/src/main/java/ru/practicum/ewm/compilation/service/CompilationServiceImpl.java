@@ -1,21 +1,27 @@
 package ru.practicum.ewm.compilation.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.category.service.CategorySnapshot;
 import ru.practicum.ewm.compilation.dto.CompilationDto;
 import ru.practicum.ewm.compilation.dto.NewCompilationDto;
 import ru.practicum.ewm.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.ewm.compilation.mapper.CompilationMapper;
 import ru.practicum.ewm.compilation.model.Compilation;
 import ru.practicum.ewm.compilation.repository.CompilationRepository;
+import ru.practicum.ewm.event.mapper.EventMapper;
 import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event.repository.EventRepository;
 import ru.practicum.ewm.exception.DuplicateNameException;
 import ru.practicum.ewm.exception.NotFoundException;
+import ru.practicum.ewm.pagination.PageCursor;
 
 import java.util.HashSet;
 import java.util.List;
@@ -25,26 +31,37 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CategorySnapshot categorySnapshot;
 
 
     @Transactional
     @Override
-    public List<CompilationDto> getCompilationsPublic(Boolean pinned, Integer from, Integer size) {
+    public List<CompilationDto> getCompilationsPublic(Boolean pinned, Integer from, Integer size, String after) {
+        if (after != null) {
+            Long afterId = PageCursor.decodeId(after);
+            List<Compilation> compilations = pinned != null
+                    ? compilationRepository.findByPinnedIsAndIdGreaterThanOrderById(pinned, afterId, Limit.of(size))
+                    : compilationRepository.findByIdGreaterThanOrderById(afterId, Limit.of(size));
+            return compilations.stream()
+                    .map(this::toCompilationDto)
+                    .collect(Collectors.toList());
+        }
 
         int pageNumber = from / size;
-        Pageable pageable = PageRequest.of(pageNumber, size);
+        Pageable pageable = PageRequest.of(pageNumber, size, Sort.by("id"));
         if (pinned != null) {
             return compilationRepository.findByPinnedIs(pinned, pageable).stream()
-                    .map(CompilationMapper::toCompilationDto)
+                    .map(this::toCompilationDto)
                     .collect(Collectors.toList());
         }
 
         return compilationRepository.findAll(pageable).stream()
-                .map(CompilationMapper::toCompilationDto)
+                .map(this::toCompilationDto)
                 .collect(Collectors.toList());
     }
 
@@ -53,7 +70,7 @@ public class CompilationServiceImpl implements CompilationService {
     public CompilationDto getCompilationByIdPublic(Long compId) {
         Optional<Compilation> result = compilationRepository.findById(compId);
         if (result.isPresent()) {
-            return CompilationMapper.toCompilationDto(result.get());
+            return toCompilationDto(result.get());
         } else {
             throw new NotFoundException("Compilation with ID " + compId + "not found");
 
@@ -74,7 +91,7 @@ public class CompilationServiceImpl implements CompilationService {
         if (compilation.getId() != null && compilationRepository.existsById(compilation.getId())) {
             throw new DuplicateNameException("Compilation already exist");
         }
-        return CompilationMapper.toCompilationDto(compilationRepository.save(compilation));
+        return toCompilationDto(compilationRepository.save(compilation));
     }
 
 
@@ -102,7 +119,12 @@ public class CompilationServiceImpl implements CompilationService {
                 .orElseThrow(() -> new NotFoundException("Compilation with ID " + compId + "not found"))
                 .getTitle() : updateCompilationRequest.getTitle());
         compilation.setId(compId);
-        return CompilationMapper.toCompilationDto(compilationRepository.save(compilation));
+        return toCompilationDto(compilationRepository.save(compilation));
     }
-}
 
+    private CompilationDto toCompilationDto(Compilation compilation) {
+        return CompilationMapper.toCompilationDto(compilation, compilation.getEvents().stream()
+                .map(event -> EventMapper.toEventShortDto(event, categorySnapshot.toCategoryDto(event.getCategory())))
+                .collect(Collectors.toList()));
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.event.controllers;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewm.event.dto.EventFullDto;
 import ru.practicum.ewm.event.dto.EventShortDto;
 import ru.practicum.ewm.event.service.EventService;
+import ru.practicum.ewm.pagination.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,6 +28,7 @@ public class EventPublicController {
 
     @GetMapping
     public List<EventShortDto> getEventsAndStatsPublic(HttpServletRequest request,
+                                                       HttpServletResponse response,
                                                        @RequestParam(required = false) String text,
                                                        @RequestParam(required = false) List<Long> categories,
                                                        @RequestParam(required = false) Boolean paid,
@@ -35,11 +38,13 @@ public class EventPublicController {
                                                        @RequestParam(required = false) LocalDateTime rangeEnd,
                                                        @RequestParam(defaultValue = "false") Boolean onlyAvailable,
                                                        @RequestParam(required = false) String sort,
+                                                       @RequestParam(defaultValue = "SUBSTRING") String searchMode,
                                                        @PositiveOrZero
                                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                        @Positive
-                                                       @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return eventService.getEventsAndStatsPublic(request,
+                                                       @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                       @RequestParam(required = false) String after) {
+        List<EventShortDto> events = eventService.getEventsAndStatsPublic(request,
                 text,
                 categories,
                 paid,
@@ -47,8 +52,14 @@ public class EventPublicController {
                 rangeEnd,
                 onlyAvailable,
                 sort,
+                searchMode,
                 from,
-                size);
+                size,
+                after);
+        if (after != null || "EVENT_DATE".equals(sort)) {
+            PageCursor.writeNext(response, events, size, event -> PageCursor.encode(event.getEventDate(), event.getId()));
+        }
+        return events;
     }
 
     @GetMapping("/{Id}")
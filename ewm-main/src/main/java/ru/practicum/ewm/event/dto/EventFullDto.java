@@ -7,7 +7,7 @@ import ru.practicum.ewm.location.model.Location;
 import ru.practicum.ewm.user.dto.UserShortDto;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class EventFullDto {
 
     private Long id;
@@ -1,5 +1,6 @@
 package ru.practicum.ewm.event.mapper;
 
+import ru.practicum.ewm.category.dto.CategoryDto;
 import ru.practicum.ewm.category.mapper.CategoryMapper;
 import ru.practicum.ewm.category.model.Category;
 import ru.practicum.ewm.event.dto.*;
@@ -17,10 +18,14 @@ public class EventMapper {
 
 
     public static EventFullDto toEventFullDto(Event event) {
+        return toEventFullDto(event, CategoryMapper.toCategoryDto(event.getCategory()));
+    }
+
+    public static EventFullDto toEventFullDto(Event event, CategoryDto category) {
         return EventFullDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(CategoryMapper.toCategoryDto(event.getCategory()))
+                .category(category)
                 .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedOn().format(DATE_TIME_FORMATTER))
                 .description(event.getDescription())
@@ -36,10 +41,14 @@ public class EventMapper {
     }
 
     public static EventShortDto toEventShortDto(Event event) {
+        return toEventShortDto(event, CategoryMapper.toCategoryDto(event.getCategory()));
+    }
+
+    public static EventShortDto toEventShortDto(Event event, CategoryDto category) {
         return EventShortDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(CategoryMapper.toCategoryDto(event.getCategory()))
+                .category(category)
                 .confirmedRequests(event.getConfirmedRequests())
                 .eventDate(event.getEventDate().format(DATE_TIME_FORMATTER))
                 .initiator(UserMapper.toUserShortDto(event.getInitiator()))
@@ -25,11 +25,11 @@ public class Event {
     @Column(length = 2000)
     private String annotation;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @Column(name = "confirmed_requests")
+    @Column(name = "confirmed_requests", updatable = false)
     private Long confirmedRequests;
 
     @Column(name = "created_on")
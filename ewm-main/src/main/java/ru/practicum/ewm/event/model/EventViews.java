@@ -0,0 +1,6 @@
+package ru.practicum.ewm.event.model;
+
+import java.time.LocalDateTime;
+
+public record EventViews(Long id, LocalDateTime createdOn, Long views) {
+}
@@ -1,9 +1,17 @@
 package ru.practicum.ewm.event.repository;
 
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventViews;
 import ru.practicum.ewm.event.model.State;
 
 import java.util.List;
@@ -11,6 +19,10 @@ import java.util.Optional;
 import java.util.Set;
 
 public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+    @EntityGraph(attributePaths = {"initiator", "location"})
+    Page<Event> findAll(Specification<Event> specification, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"initiator", "location"})
     List<Event> getEventsByInitiatorId(Long userId, Pageable pageable);
 
     Optional<Event> findByInitiatorIdAndId(Long userId, Long eventId);
@@ -25,4 +37,30 @@ public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecific
 
     List<Event> getEventsByCategoryId(Long catId);
 
+    @Query("select new ru.practicum.ewm.event.model.EventViews(e.id, e.createdOn, e.views) from Event e "
+            + "where e.state = ?1 and e.id > ?2 order by e.id")
+    List<EventViews> findViewsByStateAfter(State state, Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.views = ?2 where e.id = ?1")
+    int updateViews(Long eventId, Long views);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_requests = confirmed_requests + 1 "
+            + "WHERE id = ?1 AND (participant_limit = 0 OR confirmed_requests < participant_limit)", nativeQuery = true)
+    int reserveParticipantSlot(Long eventId);
+
+    @Query(value = "SELECT confirmed_requests FROM events WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    long lockConfirmedRequests(Long eventId);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_requests = confirmed_requests + ?2 WHERE id = ?1", nativeQuery = true)
+    int addConfirmedRequests(Long eventId, int count);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_requests = confirmed_requests - 1 "
+            + "WHERE id = ?1 AND confirmed_requests > 0", nativeQuery = true)
+    int releaseParticipantSlot(Long eventId);
+
 }
\ No newline at end of file
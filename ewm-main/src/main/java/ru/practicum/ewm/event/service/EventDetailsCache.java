@@ -0,0 +1,141 @@
+package ru.practicum.ewm.event.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.event.dto.EventFullDto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class EventDetailsCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "eventFullDto";
+
+    private final boolean enabled;
+    private final Map<Long, CachedEvent> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EventDetailsCache(@Value("${ewm.event-cache.enabled:true}") boolean enabled,
+                             @Value("${ewm.event-cache.max-size:1000}") int maxSize) {
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedEvent> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public CachedEvent get(Long eventId) {
+        if (!enabled) {
+            return null;
+        }
+        CachedEvent cached;
+        synchronized (entries) {
+            cached = entries.get(eventId);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return cached;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Long eventId, CachedEvent cachedEvent, long loadedAtGeneration) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation.get() == loadedAtGeneration) {
+                entries.put(eventId, cachedEvent);
+            }
+        }
+    }
+
+    public void evictAfterCommit(Long eventId) {
+        evict(eventId);
+        runAfterCommit(() -> evict(eventId));
+    }
+
+    public void clearAfterCommit() {
+        clear();
+        runAfterCommit(this::clear);
+    }
+
+    public void evict(Long eventId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(eventId);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .description("Event detail lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .description("Event detail lookups that went to the database")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .description("Event details evicted because the cache was full")
+                .register(registry);
+        Gauge.builder("cache.size", this, EventDetailsCache::getSize)
+                .tag("cache", CACHE_NAME)
+                .description("Event details currently cached")
+                .register(registry);
+    }
+
+    public record CachedEvent(EventFullDto event, LocalDateTime createdOn, Long storedViews) {
+    }
+}
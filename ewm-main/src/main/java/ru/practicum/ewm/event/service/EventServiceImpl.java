@@ -1,22 +1,25 @@
 package ru.practicum.ewm.event.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.category.model.Category;
 import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.category.service.CategorySnapshot;
 import ru.practicum.ewm.client.stats.StatsClient;
 import ru.practicum.ewm.dto.stats.EndpointHitDto;
-import ru.practicum.ewm.dto.stats.ViewStats;
 import ru.practicum.ewm.event.dto.*;
 import ru.practicum.ewm.event.mapper.EventMapper;
 import ru.practicum.ewm.event.model.Event;
@@ -26,6 +29,7 @@ import ru.practicum.ewm.event.model.Status;
 import ru.practicum.ewm.event.repository.EventRepository;
 import ru.practicum.ewm.exception.*;
 import ru.practicum.ewm.location.model.Location;
+import ru.practicum.ewm.pagination.PageCursor;
 import ru.practicum.ewm.location.repository.LocationRepository;
 import ru.practicum.ewm.participation.dto.ParticipationRequestDto;
 import ru.practicum.ewm.participation.mapper.ParticipationMapper;
@@ -37,21 +41,30 @@ import ru.practicum.ewm.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
+    private static final String SEARCH_VECTOR = "(setweight(to_tsvector('simple', coalesce(?, '')), 'A')"
+            + " || setweight(to_tsvector('simple', coalesce(?, '')), 'B')"
+            + " || setweight(to_tsvector('simple', coalesce(?, '')), 'C'))";
+
     private final EventRepository eventRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final ParticipationRepository participationRepository;
     private final LocationRepository locationRepository;
     private final StatsClient statsClient;
+    private final EventViewsService eventViewsService;
+    private final EventDetailsCache eventDetailsCache;
+    private final CategorySnapshot categorySnapshot;
 
     @Transactional
     @Override
@@ -59,7 +72,7 @@ public class EventServiceImpl implements EventService {
         int pageNumber = from / size;
         Pageable pageable = PageRequest.of(pageNumber, size);
         return eventRepository.getEventsByInitiatorId(userId, pageable).stream()
-                .map(EventMapper::toEventShortDto)
+                .map(event -> EventMapper.toEventShortDto(event, categorySnapshot.toCategoryDto(event.getCategory())))
                 .collect(Collectors.toList());
     }
 
@@ -125,6 +138,7 @@ public class EventServiceImpl implements EventService {
         }
 
         upEvent.setId(eventId);
+        eventDetailsCache.evictAfterCommit(eventId);
 
         return EventMapper.toEventFullDto(eventRepository.save(upEvent));
     }
@@ -176,11 +190,21 @@ public class EventServiceImpl implements EventService {
             throw new OverflowLimitException("Too many requests");
         }
 
-        if (!event.getRequestModeration()) {
-            return processRequestsWithoutModeration(event, status, participationRequests);
+        for (ParticipationRequest request : participationRequests) {
+            if (!request.getStatus().equals(Status.PENDING)) {
+                throw new StatusParticipationRequestException("Request status(" + request.getStatus()
+                        + ") is not PENDING");
+            }
+        }
+        if (participationRequests.isEmpty()) {
+            return buildResult(new ArrayList<>(), new ArrayList<>());
         }
 
-        return processRequestsWithModeration(event, status, participationRequests);
+        eventDetailsCache.evictAfterCommit(eventId);
+        if (!status.equals(Status.CONFIRMED)) {
+            return buildResult(new ArrayList<>(), updateStatuses(participationRequests, Status.REJECTED));
+        }
+        return confirmRequests(event, participationRequests);
     }
 
 
@@ -214,7 +238,7 @@ public class EventServiceImpl implements EventService {
 
         return eventRepository.findAll(specification, pageable)
                 .stream()
-                .map(EventMapper::toEventFullDto)
+                .map(event -> EventMapper.toEventFullDto(event, categorySnapshot.toCategoryDto(event.getCategory())))
                 .collect(Collectors.toList());
     }
 
@@ -281,6 +305,7 @@ public class EventServiceImpl implements EventService {
             }
         }
         upEvent.setId(eventId);
+        eventDetailsCache.evictAfterCommit(eventId);
 
         return EventMapper.toEventFullDto(eventRepository.save(upEvent));
     }
@@ -315,7 +340,6 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    @Transactional
     @Override
     public List<EventShortDto> getEventsAndStatsPublic(HttpServletRequest request,
                                                        String text,
@@ -324,17 +348,21 @@ public class EventServiceImpl implements EventService {
                                                        LocalDateTime rangeStart,
                                                        LocalDateTime rangeEnd,
                                                        Boolean onlyAvailable,
-                                                       String sort, Integer from, Integer size) {
+                                                       String sort, String searchMode,
+                                                       Integer from, Integer size, String after) {
 
         if (rangeStart != null && rangeEnd != null && rangeStart.isAfter(rangeEnd)) {
             throw new IllegalArgumentException("Time start " + rangeStart + " after end " + rangeEnd);
         }
 
         int pageNumber = from / size;
-        Pageable pageable = PageRequest.of(pageNumber, size);
         LocalDateTime timeNow = LocalDateTime.now();
-        String textPattern = (text != null) ? "%" + text + "%" : null;
-        Sort sortByEventDate = Sort.by(Sort.Direction.DESC, "eventDate");
+        boolean fullText = "FULL_TEXT".equals(searchMode);
+        if (!fullText && !"SUBSTRING".equals(searchMode)) {
+            throw new IllegalArgumentException("Unknown search mode " + searchMode);
+        }
+        String textPattern = (text != null && !fullText) ? "%" + text + "%" : null;
+        Sort sortByEventDate = Sort.by(Sort.Direction.DESC, "eventDate", "id");
         Sort sortByViews = Sort.by(Sort.Direction.DESC, "views");
         PageRequest pageRequest;
 
@@ -345,37 +373,61 @@ public class EventServiceImpl implements EventService {
                 .timestamp(timeNow.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
                 .build();
 
-        try {
-            statsClient.addRequest(endpointHitDto);
-        } catch (RuntimeException e) {
-            throw new IllegalArgumentException(e.getLocalizedMessage());
-        }
+        statsClient.registerHit(endpointHitDto);
 
         Specification<Event> specification = buildSpecificationPublic(onlyAvailable, categories,
                 textPattern, LocalDateTime.now(), rangeStart, rangeEnd);
-        if (sort == null) {
-            return eventRepository.findAll(specification, pageable)
-                    .stream()
-                    .map(EventMapper::toEventShortDto)
-                    .collect(Collectors.toList());
-        } else if (sort.equals("EVENT_DATE")) {
-            pageRequest = PageRequest.of(pageNumber, size, sortByEventDate);
-            return eventRepository.findAll(specification, pageRequest)
-                    .stream()
-                    .map(EventMapper::toEventShortDto)
-                    .collect(Collectors.toList());
-        } else if (sort.equals("VIEWS")) {
-            pageRequest = PageRequest.of(pageNumber, size, sortByViews);
-            return eventRepository.findAll(specification, pageRequest)
-                    .stream()
-                    .map(EventMapper::toEventShortDto)
-                    .collect(Collectors.toList());
+        if (fullText && text != null && !text.isBlank()) {
+            specification = specification.and(buildFullTextSpecification(text, sort == null && after == null));
+        }
+        List<Event> events;
+        if (after != null) {
+            if ("VIEWS".equals(sort)) {
+                throw new IllegalArgumentException("Cursor paging is supported only for EVENT_DATE sort");
+            }
+            KeysetScrollPosition position = PageCursor.decodeEventDateAndId(after);
+            events = eventRepository.findBy(specification, query -> query
+                    .sortBy(sortByEventDate)
+                    .project("initiator", "location")
+                    .limit(size)
+                    .scroll(position))
+                    .getContent();
         } else {
-            return eventRepository.findAll(specification, pageable)
-                    .stream()
-                    .map(EventMapper::toEventShortDto)
-                    .collect(Collectors.toList());
+            if ("EVENT_DATE".equals(sort)) {
+                pageRequest = PageRequest.of(pageNumber, size, sortByEventDate);
+            } else if ("VIEWS".equals(sort)) {
+                pageRequest = PageRequest.of(pageNumber, size, sortByViews);
+            } else {
+                pageRequest = PageRequest.of(pageNumber, size);
+            }
+            events = eventRepository.findAll(specification, pageRequest).getContent();
         }
+        Map<Long, Long> views = eventViewsService.getViews(events);
+        return events.stream()
+                .map(event -> {
+                    EventShortDto eventShortDto = EventMapper.toEventShortDto(event,
+                            categorySnapshot.toCategoryDto(event.getCategory()));
+                    eventShortDto.setViews(views.get(event.getId()));
+                    return eventShortDto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Specification<Event> buildFullTextSpecification(String text, boolean orderByRank) {
+        return (root, query, criteriaBuilder) -> {
+            HibernateCriteriaBuilder builder = (HibernateCriteriaBuilder) criteriaBuilder;
+            Expression<String> title = root.get("title");
+            Expression<String> annotation = root.get("annotation");
+            Expression<String> description = root.get("description");
+            Expression<String> search = builder.literal(text);
+            if (orderByRank && !Long.class.equals(query.getResultType())) {
+                query.orderBy(builder.desc(builder.sql("ts_rank(" + SEARCH_VECTOR
+                                + ", websearch_to_tsquery('simple', ?))", Double.class,
+                        title, annotation, description, search)), builder.desc(root.get("id")));
+            }
+            return builder.isTrue(builder.sql(SEARCH_VECTOR + " @@ websearch_to_tsquery('simple', ?)",
+                    Boolean.class, title, annotation, description, search));
+        };
     }
 
     private Specification<Event> buildSpecificationPublic(Boolean onlyAvailable,
@@ -414,29 +466,23 @@ public class EventServiceImpl implements EventService {
         };
     }
 
-    @Transactional
     @Override
     public EventFullDto getEventByIdAndStatsPublic(HttpServletRequest request, Long eventId) {
-        Event event = eventRepository.getEventByIdAndState(eventId, State.PUBLISHED);
-
-        if (event == null) {
-            throw new NotFoundException("Event with ID " + eventId + " not found");
-        }
-        LocalDateTime timeStart = event.getCreatedOn();
-        LocalDateTime timeNow = LocalDateTime.now();
-        List<String> uris = Collections.singletonList(request.getRequestURI());
-
-        ResponseEntity<List<ViewStats>> response = statsClient.getStats(timeStart, timeNow, uris, true);
-        List<ViewStats> resp = response.hasBody() ? response.getBody() : Collections.emptyList();
+        long cacheGeneration = eventDetailsCache.generation();
+        EventDetailsCache.CachedEvent cached = eventDetailsCache.get(eventId);
+        if (cached == null) {
+            Event event = eventRepository.getEventByIdAndState(eventId, State.PUBLISHED);
 
-        if (resp.isEmpty()) {
-            if (event.getViews() == null || event.getViews() == 0) {
-                event.setViews(1L);
-                eventRepository.save(event);
-            } else {
-                event.setViews((long) resp.size());
+            if (event == null) {
+                throw new NotFoundException("Event with ID " + eventId + " not found");
             }
+            cached = new EventDetailsCache.CachedEvent(EventMapper.toEventFullDto(event,
+                    categorySnapshot.toCategoryDto(event.getCategory())),
+                    event.getCreatedOn(), event.getViews());
+            eventDetailsCache.put(eventId, cached, cacheGeneration);
         }
+        LocalDateTime timeNow = LocalDateTime.now();
+        long views = eventViewsService.getViews(eventId, cached.createdOn(), cached.storedViews());
 
         String ms = "main-service";
         EndpointHitDto endpointHitDto = EndpointHitDto.builder()
@@ -446,30 +492,46 @@ public class EventServiceImpl implements EventService {
                 .timestamp(timeNow.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
                 .build();
 
-        statsClient.addRequest(endpointHitDto);
+        statsClient.registerHit(endpointHitDto);
 
-        return EventMapper.toEventFullDto(event);
+        return cached.event().toBuilder()
+                .views(Math.max(views, 1L))
+                .build();
     }
 
 
-    private void confirmRequest(Event event, ParticipationRequest request) {
-        request.setStatus(Status.CONFIRMED);
-        event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-        participationRepository.saveAndFlush(request);
-    }
-
+    private EventRequestStatusUpdateResult confirmRequests(Event event,
+                                                           List<ParticipationRequest> participationRequests) {
+        long confirmed = eventRepository.lockConfirmedRequests(event.getId());
+        int capacity = event.getParticipantLimit() == 0
+                ? participationRequests.size()
+                : (int) Math.max(0, Math.min(participationRequests.size(), event.getParticipantLimit() - confirmed));
+        if (capacity == 0) {
+            throw new OverflowLimitException("Too many requests");
+        }
+        eventRepository.addConfirmedRequests(event.getId(), capacity);
 
-    private void rejectRequest(ParticipationRequest request) {
-        request.setStatus(Status.REJECTED);
-        participationRepository.saveAndFlush(request);
+        List<ParticipationRequest> ordered = new ArrayList<>(participationRequests);
+        ordered.sort(Comparator.comparing(ParticipationRequest::getCreated)
+                .thenComparing(ParticipationRequest::getId));
+        return buildResult(updateStatuses(ordered.subList(0, capacity), Status.CONFIRMED),
+                updateStatuses(ordered.subList(capacity, ordered.size()), Status.REJECTED));
     }
 
 
-    private List<ParticipationRequestDto> buildRejectedDtos(List<ParticipationRequest> allRequests,
-                                                            List<ParticipationRequest> confirmedRequests) {
-        List<ParticipationRequest> remainingRequests = new ArrayList<>(allRequests);
-        remainingRequests.removeAll(confirmedRequests);
-        return mapToDtos(remainingRequests);
+    private List<ParticipationRequestDto> updateStatuses(List<ParticipationRequest> requests, Status status) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int updated = participationRepository.updateStatus(requests.stream()
+                .map(ParticipationRequest::getId)
+                .collect(Collectors.toList()), status);
+        if (updated != requests.size()) {
+            throw new StatusParticipationRequestException("Requests status changed concurrently");
+        }
+        List<ParticipationRequestDto> dtos = mapToDtos(requests);
+        dtos.forEach(dto -> dto.setStatus(status.toString()));
+        return dtos;
     }
 
 
@@ -486,55 +548,4 @@ public class EventServiceImpl implements EventService {
                 .build();
     }
 
-    private EventRequestStatusUpdateResult processRequestsWithoutModeration(Event event,
-                                                                            Status status,
-                                                                            List<ParticipationRequest> participationRequests) {
-        List<ParticipationRequest> confirmedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> rejectedDtos = new ArrayList<>();
-
-        for (ParticipationRequest request : participationRequests) {
-            if (!request.getStatus().equals(Status.PENDING)) {
-                throw new StatusParticipationRequestException("Request status(" + request.getStatus()
-                        + ") is not PENDING");
-            }
-
-            if (status.equals(Status.CONFIRMED)) {
-                confirmRequest(event, request);
-                confirmedRequests.add(request);
-
-            } else {
-                rejectRequest(request);
-                rejectedDtos = buildRejectedDtos(participationRequests, new ArrayList<>());
-                break;
-            }
-        }
-
-        return buildResult(mapToDtos(confirmedRequests), rejectedDtos);
-    }
-
-    private EventRequestStatusUpdateResult processRequestsWithModeration(Event event,
-                                                                         Status status,
-                                                                         List<ParticipationRequest> participationRequests) {
-        List<ParticipationRequest> confirmedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> rejectedDtos = new ArrayList<>();
-
-        for (ParticipationRequest request : participationRequests) {
-            if (!request.getStatus().equals(Status.PENDING)) {
-                throw new StatusParticipationRequestException("Request status(" + request.getStatus()
-                        + ") is not PENDING");
-            }
-
-            if (status.equals(Status.CONFIRMED)) {
-                confirmRequest(event, request);
-                confirmedRequests.add(request);
-
-            } else {
-                rejectRequest(request);
-                rejectedDtos = buildRejectedDtos(participationRequests, new ArrayList<>());
-                break;
-            }
-        }
-        return buildResult(mapToDtos(confirmedRequests), rejectedDtos);
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.ewm.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.event.model.EventViews;
+import ru.practicum.ewm.event.model.State;
+import ru.practicum.ewm.event.repository.EventRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsRankingUpdater {
+    private final EventRepository eventRepository;
+    private final EventViewsService eventViewsService;
+
+    @Value("${ewm.views-ranking.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ewm.views-ranking.chunk-size:200}")
+    private int chunkSize;
+
+    @Scheduled(initialDelayString = "${ewm.views-ranking.interval-ms:60000}",
+            fixedDelayString = "${ewm.views-ranking.interval-ms:60000}")
+    public void refreshViews() {
+        if (!enabled) {
+            return;
+        }
+        int updated = 0;
+        long lastId = 0;
+        List<EventViews> chunk;
+        do {
+            chunk = eventRepository.findViewsByStateAfter(State.PUBLISHED, lastId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> views = eventViewsService.getViewsOf(chunk);
+            for (EventViews event : chunk) {
+                Long current = views.get(event.id());
+                if (current != null && !Objects.equals(current, event.views())) {
+                    updated += eventRepository.updateViews(event.id(), current);
+                }
+            }
+            lastId = chunk.get(chunk.size() - 1).id();
+        } while (chunk.size() == chunkSize);
+        log.info("Views ranking refreshed, {} events updated", updated);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.event.service;
+
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventViews;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface EventViewsService {
+
+    Map<Long, Long> getViews(Collection<Event> events);
+
+    Map<Long, Long> getViewsOf(Collection<EventViews> events);
+
+    long getViews(Long eventId, LocalDateTime createdOn, Long storedViews);
+}
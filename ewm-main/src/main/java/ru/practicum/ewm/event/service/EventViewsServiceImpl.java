@@ -0,0 +1,106 @@
+package ru.practicum.ewm.event.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.ewm.client.stats.StatsClient;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventViews;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Slf4j
+@Service
+@Timed("ewm.service")
+@RequiredArgsConstructor
+public class EventViewsServiceImpl implements EventViewsService {
+    private static final String EVENT_URI_PREFIX = "/events/";
+
+    private final StatsClient statsClient;
+
+    @Override
+    public Map<Long, Long> getViews(Collection<Event> events) {
+        Map<Long, LocalDateTime> createdOn = new HashMap<>();
+        Map<Long, Long> storedViews = new HashMap<>();
+        for (Event event : events) {
+            createdOn.put(event.getId(), event.getCreatedOn());
+            storedViews.put(event.getId(), event.getViews());
+        }
+        return resolveViews(createdOn, storedViews);
+    }
+
+    @Override
+    public Map<Long, Long> getViewsOf(Collection<EventViews> events) {
+        Map<Long, LocalDateTime> createdOn = new HashMap<>();
+        Map<Long, Long> storedViews = new HashMap<>();
+        for (EventViews event : events) {
+            createdOn.put(event.id(), event.createdOn());
+            storedViews.put(event.id(), event.views());
+        }
+        return resolveViews(createdOn, storedViews);
+    }
+
+    @Override
+    public long getViews(Long eventId, LocalDateTime createdOn, Long storedViews) {
+        Map<Long, LocalDateTime> created = new HashMap<>();
+        created.put(eventId, createdOn);
+        Map<Long, Long> stored = new HashMap<>();
+        stored.put(eventId, storedViews);
+        return resolveViews(created, stored).getOrDefault(eventId, 0L);
+    }
+
+    private Map<Long, Long> resolveViews(Map<Long, LocalDateTime> createdOn, Map<Long, Long> storedViews) {
+        Map<Long, Long> views = new HashMap<>();
+        if (createdOn.isEmpty()) {
+            return views;
+        }
+        LocalDateTime start = LocalDateTime.now();
+        List<String> uris = new ArrayList<>(createdOn.size());
+        for (Map.Entry<Long, LocalDateTime> entry : createdOn.entrySet()) {
+            Long stored = storedViews.get(entry.getKey());
+            views.put(entry.getKey(), stored == null ? 0L : stored);
+            uris.add(EVENT_URI_PREFIX + entry.getKey());
+            if (entry.getValue() != null && entry.getValue().isBefore(start)) {
+                start = entry.getValue();
+            }
+        }
+
+        List<ViewStats> stats;
+        try {
+            ResponseEntity<List<ViewStats>> response = statsClient.getStats(start, LocalDateTime.now(), uris, true);
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                log.warn("Stats server answered {} for views of {} events, using stored views",
+                        response.getStatusCode(), createdOn.size());
+                return views;
+            }
+            stats = response.getBody();
+        } catch (RuntimeException e) {
+            log.warn("Failed to load views of {} events from stats server: {}", createdOn.size(), e.getMessage());
+            return views;
+        }
+
+        views.replaceAll((eventId, stored) -> 0L);
+        for (ViewStats viewStats : stats) {
+            Long eventId = parseEventId(viewStats.getUri());
+            if (eventId != null && views.containsKey(eventId)) {
+                views.merge(eventId, viewStats.getHits().longValue(), Long::sum);
+            }
+        }
+        return views;
+    }
+
+    private Long parseEventId(String uri) {
+        if (uri == null || !uri.startsWith(EVENT_URI_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(uri.substring(EVENT_URI_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.ewm.pagination;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {
+    }
+
+    public static String encode(Long id) {
+        return toToken(String.valueOf(id));
+    }
+
+    public static String encode(String eventDate, Long id) {
+        return toToken(eventDate + SEPARATOR + id);
+    }
+
+    public static Long decodeId(String token) {
+        return parseId(fromToken(token), token);
+    }
+
+    public static KeysetScrollPosition decodeEventDateAndId(String token) {
+        String value = fromToken(token);
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor " + token);
+        }
+        LocalDateTime eventDate;
+        try {
+            eventDate = LocalDateTime.parse(value.substring(0, separator), DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor " + token);
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("eventDate", eventDate);
+        keys.put("id", parseId(value.substring(separator + 1), token));
+        return ScrollPosition.forward(keys);
+    }
+
+    public static <T> void writeNext(HttpServletResponse response, List<T> page, int size,
+                                     Function<T, String> cursor) {
+        if (!page.isEmpty() && page.size() == size) {
+            response.setHeader(NEXT_CURSOR_HEADER, cursor.apply(page.get(page.size() - 1)));
+        }
+    }
+
+    private static String toToken(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromToken(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor " + token);
+        }
+    }
+
+    private static Long parseId(String value, String token) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor " + token);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.ewm.participation.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.ewm.event.model.Status;
 import ru.practicum.ewm.participation.model.ParticipationRequest;
 
 import java.util.List;
@@ -18,4 +21,9 @@ public interface ParticipationRepository extends JpaRepository<ParticipationRequ
     List<ParticipationRequest> getParticipationRequestsByEvent(Long eventId);
 
     List<ParticipationRequest> getParticipationRequestsByRequester(Long userId);
+
+    @Modifying
+    @Query("update ParticipationRequest r set r.status = ?2 "
+            + "where r.id in ?1 and r.status = ru.practicum.ewm.event.model.Status.PENDING")
+    int updateStatus(List<Long> requestIds, Status status);
 }
\ No newline at end of file
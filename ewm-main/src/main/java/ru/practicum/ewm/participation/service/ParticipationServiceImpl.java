@@ -1,5 +1,6 @@
 package ru.practicum.ewm.participation.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +10,7 @@ import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event.model.State;
 import ru.practicum.ewm.event.model.Status;
 import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.event.service.EventDetailsCache;
 import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.exception.OverflowLimitException;
 import ru.practicum.ewm.exception.RepeatParticipationRequestException;
@@ -24,11 +26,13 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 public class ParticipationServiceImpl implements ParticipationService {
     private final ParticipationRepository participationRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final EventDetailsCache eventDetailsCache;
 
     @Transactional
     @Override
@@ -68,14 +72,16 @@ public class ParticipationServiceImpl implements ParticipationService {
 
 
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
+            if (eventRepository.reserveParticipantSlot(eventId) == 0) {
+                throw new OverflowLimitException("Too many requests");
+            }
             participationRequest.setStatus(Status.CONFIRMED);
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
+            eventDetailsCache.evictAfterCommit(eventId);
         } else {
             participationRequest.setStatus(Status.PENDING);
         }
 
 
-        eventRepository.save(event);
         ParticipationRequest newParticipationRequest = participationRepository.save(participationRequest);
 
         // Преобразование в DTO и возврат
@@ -98,9 +104,8 @@ public class ParticipationServiceImpl implements ParticipationService {
         if (participationRequest.getStatus().equals(Status.PENDING)) {
             participationRequest.setStatus(Status.CANCELED);
         } else if (participationRequest.getStatus().equals(Status.CONFIRMED)) {
-            Event event = eventRepository.getEventsById(participationRequest.getEvent());
-            event.setConfirmedRequests(event.getConfirmedRequests() - 1);
-            eventRepository.save(event);
+            eventRepository.releaseParticipantSlot(participationRequest.getEvent());
+            eventDetailsCache.evictAfterCommit(participationRequest.getEvent());
             participationRequest.setStatus(Status.CANCELED);
         }
 
@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, locations, category, events, compilations, participation_requests, events_compilations CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     email VARCHAR(255) NOT NULL CONSTRAINT unique_email UNIQUE,
@@ -72,4 +70,4 @@ CREATE TABLE IF NOT EXISTS comments (
     created TIMESTAMP NOT NULL,
     CONSTRAINT comments_events_fkey FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT comments_users_fkey FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS events_state_views_idx ON events (state, views DESC);
+
+CREATE INDEX IF NOT EXISTS events_search_idx ON events USING GIN ((setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('simple', coalesce(annotation, '')), 'B')
+    || setweight(to_tsvector('simple', coalesce(description, '')), 'C')));
@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date, id);
+
+CREATE INDEX IF NOT EXISTS events_initiator_id_idx ON events (initiator_id);
+
+CREATE INDEX IF NOT EXISTS events_category_id_idx ON events (category_id);
+
+CREATE INDEX IF NOT EXISTS participation_requests_event_id_idx ON participation_requests (event_id);
+
+CREATE INDEX IF NOT EXISTS participation_requests_requester_event_idx ON participation_requests (requester_id, event_id);
+
+CREATE INDEX IF NOT EXISTS comments_event_created_idx ON comments (event_id, created);
+
+CREATE INDEX IF NOT EXISTS comments_event_id_idx ON comments (event_id, id);
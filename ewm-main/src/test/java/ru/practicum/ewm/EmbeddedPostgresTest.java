@@ -0,0 +1,94 @@
+package ru.practicum.ewm;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.client.stats.StatsClient;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.State;
+import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.location.model.Location;
+import ru.practicum.ewm.location.repository.LocationRepository;
+import ru.practicum.ewm.user.model.User;
+import ru.practicum.ewm.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest
+public abstract class EmbeddedPostgresTest {
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @MockBean
+    protected StatsClient statsClient;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected LocationRepository locationRepository;
+
+    @Autowired
+    protected EventRepository eventRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    protected User createUser() {
+        long n = SEQUENCE.incrementAndGet();
+        return userRepository.save(User.builder()
+                .name("User " + n)
+                .email("user" + n + "@example.com")
+                .build());
+    }
+
+    protected Category createCategory() {
+        return categoryRepository.save(Category.builder()
+                .name("Category " + SEQUENCE.incrementAndGet())
+                .build());
+    }
+
+    protected Event createEvent(User initiator, Category category, int participantLimit, boolean requestModeration) {
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.save(Event.builder()
+                .annotation("Annotation of a test event long enough")
+                .description("Description of a test event long enough")
+                .title("Event " + SEQUENCE.incrementAndGet())
+                .category(category)
+                .initiator(initiator)
+                .location(locationRepository.save(Location.builder().lat(55.75).lon(37.62).build()))
+                .createdOn(now.minusDays(1))
+                .publishedOn(now.minusHours(1))
+                .eventDate(now.plusMonths(1))
+                .paid(false)
+                .participantLimit(participantLimit)
+                .confirmedRequests(0L)
+                .requestModeration(requestModeration)
+                .state(State.PUBLISHED)
+                .views(0L)
+                .build());
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+}
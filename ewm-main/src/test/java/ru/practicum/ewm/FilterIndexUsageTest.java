@@ -0,0 +1,41 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterIndexUsageTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "SELECT * FROM events WHERE state = 'PUBLISHED' AND event_date > LOCALTIMESTAMP "
+                + "ORDER BY event_date DESC, id DESC LIMIT 10 | events_state_event_date_idx",
+        "SELECT * FROM events WHERE initiator_id = 1 | events_initiator_id_idx",
+        "SELECT * FROM events WHERE category_id = 1 | events_category_id_idx",
+        "SELECT * FROM participation_requests WHERE event_id = 1 | participation_requests_event_id_idx",
+        "SELECT * FROM participation_requests WHERE requester_id = 1 AND event_id = 1 "
+                + "| participation_requests_requester_event_idx",
+        "SELECT * FROM comments WHERE event_id = 1 ORDER BY id LIMIT 10 OFFSET 20 | comments_event_id_idx",
+        "SELECT * FROM comments WHERE event_id = 1 AND id > 1 ORDER BY id LIMIT 10 | comments_event_id_idx"
+    })
+    void hotQueryUsesIndex(String query, String index) {
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN " + query, String.class);
+        });
+
+        assertThat(String.join("\n", plan)).contains(index);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.ewm.category;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewm.EmbeddedPostgresTest;
+import ru.practicum.ewm.category.dto.CategoryDto;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.service.CategorySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategorySnapshotTest extends EmbeddedPostgresTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private CategorySnapshot categorySnapshot;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentMissesOnNewCategoryLoadItOnce() throws Exception {
+        categorySnapshot.getAll();
+        Category category = createCategory();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CategoryDto>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return categorySnapshot.toCategoryDto(category);
+                }));
+            }
+            start.countDown();
+            for (Future<CategoryDto> future : futures) {
+                assertThat(future.get(60, TimeUnit.SECONDS).getName()).isEqualTo(category.getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(categorySnapshot.get(category.getId()).getName()).isEqualTo(category.getName());
+        assertThat(categorySnapshot.getAll()).extracting(CategoryDto::getId).isSorted();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.ewm.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.EmbeddedPostgresTest;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.event.dto.EventShortDto;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.service.EventService;
+import ru.practicum.ewm.user.model.User;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventFullTextSearchTest extends EmbeddedPostgresTest {
+    private static final String SEARCH_INDEX = "events_search_idx";
+    private static final int FILLER_EVENTS = 5000;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String word;
+    private Event inTitle;
+    private Event inAnnotation;
+    private Event inDescription;
+
+    @BeforeEach
+    void createEvents() {
+        word = "word" + System.nanoTime();
+        User initiator = createUser();
+        Category category = createCategory();
+        inDescription = createEvent(initiator, category, 0, false);
+        inDescription.setDescription("Description of a test event that mentions " + word + " at the very end");
+        inDescription.setEventDate(inDescription.getEventDate().plusDays(3));
+        inDescription = eventRepository.save(inDescription);
+        inAnnotation = createEvent(initiator, category, 0, false);
+        inAnnotation.setAnnotation("Annotation mentioning " + word + " somewhere");
+        inAnnotation.setEventDate(inAnnotation.getEventDate().plusDays(2));
+        inAnnotation = eventRepository.save(inAnnotation);
+        inTitle = createEvent(initiator, category, 0, false);
+        inTitle.setTitle("About " + word);
+        inTitle.setEventDate(inTitle.getEventDate().plusDays(1));
+        inTitle = eventRepository.save(inTitle);
+        Event unrelated = createEvent(initiator, category, 0, false);
+        unrelated.setTitle("Unrelated " + word.substring(0, word.length() - 1));
+        eventRepository.save(unrelated);
+    }
+
+    @Test
+    void ordersMatchesByRankWithoutSortOrCursor() {
+        assertThat(search(word, null)).containsExactly(inTitle.getId(), inAnnotation.getId(),
+                inDescription.getId());
+    }
+
+    @Test
+    void keepsRequestedSortOverRank() {
+        assertThat(search(word, "EVENT_DATE")).containsExactly(inDescription.getId(), inAnnotation.getId(),
+                inTitle.getId());
+    }
+
+    @Test
+    void supportsWebSearchSyntax() {
+        assertThat(search("\"about " + word + "\"", null)).containsExactly(inTitle.getId());
+        assertThat(search(word + " -about", null)).containsExactly(inAnnotation.getId(), inDescription.getId());
+    }
+
+    @Test
+    void usesSearchIndex() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO events (annotation, category_id, confirmed_requests, created_on, description, "
+                        + "event_date, initiator_id, location_id, paid, participant_limit, published_on, "
+                        + "request_moderation, state, title, views) "
+                        + "SELECT annotation, category_id, 0, created_on, description || ' ' || n, event_date, "
+                        + "initiator_id, location_id, paid, 0, published_on, false, state, 'Filler ' || n, 0 "
+                        + "FROM events, generate_series(1, ?) AS n WHERE id = ?", FILLER_EVENTS, inTitle.getId());
+        try {
+            jdbcTemplate.execute("ANALYZE events");
+            long scansBefore = searchIndexScans();
+
+            assertThat(search(word, null)).hasSize(3);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (searchIndexScans() == scansBefore && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+            assertThat(searchIndexScans()).isGreaterThan(scansBefore);
+        } finally {
+            jdbcTemplate.update("DELETE FROM events WHERE title LIKE 'Filler %'");
+        }
+    }
+
+    private List<Long> search(String text, String sort) {
+        return eventService.getEventsAndStatsPublic(new MockHttpServletRequest("GET", "/events"), text, null,
+                        null, null, null, false, sort, "FULL_TEXT", 0, 10, null).stream()
+                .map(EventShortDto::getId)
+                .toList();
+    }
+
+    private long searchIndexScans() {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+            return jdbcTemplate.queryForObject("SELECT idx_scan FROM pg_stat_user_indexes WHERE indexrelname = ?",
+                    Long.class, SEARCH_INDEX);
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.ewm.event;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import ru.practicum.ewm.EmbeddedPostgresTest;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.compilation.dto.NewCompilationDto;
+import ru.practicum.ewm.compilation.service.CompilationService;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.service.EventService;
+import ru.practicum.ewm.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPageQueryCountTest extends EmbeddedPostgresTest {
+    private static final int EVENTS = 30;
+    private static final int SMALL_PAGE = 3;
+    private static final int LARGE_PAGE = 25;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private CompilationService compilationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> initiatorIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> eventIds = new ArrayList<>();
+
+    @BeforeEach
+    void createEvents() {
+        List<User> initiators = List.of(createUser(), createUser(), createUser());
+        List<Category> categories = List.of(createCategory(), createCategory());
+        initiators.forEach(user -> initiatorIds.add(user.getId()));
+        categories.forEach(category -> categoryIds.add(category.getId()));
+        for (int i = 0; i < EVENTS; i++) {
+            Event event = createEvent(initiators.get(i % initiators.size()), categories.get(i % categories.size()),
+                    0, false);
+            eventIds.add(event.getId());
+        }
+    }
+
+    @Test
+    void adminEventPageIsLoadedInBoundedNumberOfStatements() {
+        assertBoundedStatements(size -> eventService.getEventsAdmin(initiatorIds, null, null, null, null, 0, size)
+                .size(), 2);
+    }
+
+    @Test
+    void publicEventPageIsLoadedInBoundedNumberOfStatements() {
+        assertBoundedStatements(size -> eventService.getEventsAndStatsPublic(
+                new MockHttpServletRequest("GET", "/events"), null, categoryIds, null, null, null,
+                false, "EVENT_DATE", "SUBSTRING", 0, size, null).size(), 2);
+    }
+
+    @Test
+    void compilationPageIsLoadedInBoundedNumberOfStatements() {
+        for (int i = 0; i < LARGE_PAGE; i++) {
+            NewCompilationDto compilation = new NewCompilationDto();
+            compilation.setTitle("Compilation " + eventIds.get(i));
+            compilation.setEvents(List.of(eventIds.get(i), eventIds.get(i + 1), eventIds.get(i + 2)));
+            compilationService.addCompilationAdmin(compilation);
+        }
+        assertBoundedStatements(size -> compilationService.getCompilationsPublic(null, 0, size, null).size(), 3);
+    }
+
+    private void assertBoundedStatements(IntFunction<Integer> loadPage, long maxStatements) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        loadPage.apply(SMALL_PAGE);
+
+        statistics.clear();
+        assertThat(loadPage.apply(SMALL_PAGE)).isEqualTo(SMALL_PAGE);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertThat(loadPage.apply(LARGE_PAGE)).isEqualTo(LARGE_PAGE);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+        assertThat(largePageStatements).isLessThanOrEqualTo(maxStatements);
+    }
+}
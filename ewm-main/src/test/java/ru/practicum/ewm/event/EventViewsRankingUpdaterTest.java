@@ -0,0 +1,69 @@
+package ru.practicum.ewm.event;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.ewm.EmbeddedPostgresTest;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.State;
+import ru.practicum.ewm.event.service.EventViewsRankingUpdater;
+import ru.practicum.ewm.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@TestPropertySource(properties = {
+    "ewm.views-ranking.enabled=true",
+    "ewm.views-ranking.chunk-size=4",
+    "ewm.views-ranking.interval-ms=3600000"
+})
+class EventViewsRankingUpdaterTest extends EmbeddedPostgresTest {
+    private static final int EVENTS = 10;
+    private static final int CHUNK_SIZE = 4;
+    private static final long VIEWS = 7;
+
+    @Autowired
+    private EventViewsRankingUpdater eventViewsRankingUpdater;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void refreshViewsWalksAllPublishedEventsInChunks() {
+        User initiator = createUser();
+        Category category = createCategory();
+        List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            eventIds.add(createEvent(initiator, category, 0, false).getId());
+        }
+        when(statsClient.getStats(any(), any(), anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<String> uris = invocation.getArgument(2);
+            return ResponseEntity.ok(uris.stream()
+                    .map(uri -> ViewStats.builder().app("ewm-main-service").uri(uri).hits((int) VIEWS).build())
+                    .toList());
+        });
+        long published = eventRepository.findAll().stream()
+                .filter(event -> event.getState() == State.PUBLISHED)
+                .count();
+
+        eventViewsRankingUpdater.refreshViews();
+        assertThat(eventRepository.findAllById(eventIds))
+                .extracting(Event::getViews)
+                .containsOnly(VIEWS);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        eventViewsRankingUpdater.refreshViews();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(published / CHUNK_SIZE + 1);
+    }
+}
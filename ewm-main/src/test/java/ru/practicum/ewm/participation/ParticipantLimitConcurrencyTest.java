@@ -0,0 +1,127 @@
+package ru.practicum.ewm.participation;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewm.EmbeddedPostgresTest;
+import ru.practicum.ewm.event.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.ewm.event.dto.EventRequestStatusUpdateResult;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.Status;
+import ru.practicum.ewm.event.service.EventService;
+import ru.practicum.ewm.exception.OverflowLimitException;
+import ru.practicum.ewm.participation.model.ParticipationRequest;
+import ru.practicum.ewm.participation.repository.ParticipationRepository;
+import ru.practicum.ewm.participation.service.ParticipationService;
+import ru.practicum.ewm.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParticipantLimitConcurrencyTest extends EmbeddedPostgresTest {
+    private static final int THREADS = 16;
+    private static final int LIMIT = 10;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @RepeatedTest(3)
+    void concurrentSignUpsNeverExceedParticipantLimit() throws Exception {
+        Event event = createEvent(createUser(), createCategory(), LIMIT, false);
+        List<User> requesters = new ArrayList<>();
+        for (int i = 0; i < 6 * LIMIT; i++) {
+            requesters.add(createUser());
+        }
+
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(requesters.stream().<Callable<Void>>map(requester -> () -> {
+            try {
+                participationService.addParticipationRequestPrivate(requester.getId(), event.getId());
+                confirmed.incrementAndGet();
+            } catch (OverflowLimitException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        }).toList());
+
+        assertThat(confirmed.get()).isEqualTo(LIMIT);
+        assertThat(rejected.get()).isEqualTo(requesters.size() - LIMIT);
+        assertThat(confirmedRequestsOf(event)).isEqualTo(LIMIT);
+        assertThat(countByStatus(event, Status.CONFIRMED)).isEqualTo(LIMIT);
+    }
+
+    @RepeatedTest(3)
+    void concurrentConfirmationsNeverExceedParticipantLimit() throws Exception {
+        User initiator = createUser();
+        Event event = createEvent(initiator, createCategory(), LIMIT, true);
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 4 * LIMIT; i++) {
+            requestIds.add(participationService.addParticipationRequestPrivate(createUser().getId(), event.getId())
+                    .getId());
+        }
+
+        AtomicInteger confirmed = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < requestIds.size(); i += 2) {
+            EventRequestStatusUpdateRequest update = new EventRequestStatusUpdateRequest();
+            update.setRequestIds(List.copyOf(requestIds.subList(i, i + 2)));
+            update.setStatus(Status.CONFIRMED);
+            tasks.add(() -> {
+                try {
+                    EventRequestStatusUpdateResult result = eventService
+                            .updateEventRequestStatusPrivate(initiator.getId(), event.getId(), update);
+                    confirmed.addAndGet(result.getConfirmedRequests().size());
+                } catch (OverflowLimitException ignored) {
+                    // the event filled up before this batch was processed
+                }
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+
+        assertThat(confirmed.get()).isEqualTo(LIMIT);
+        assertThat(confirmedRequestsOf(event)).isEqualTo(LIMIT);
+        assertThat(countByStatus(event, Status.CONFIRMED)).isEqualTo(LIMIT);
+    }
+
+    private void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long confirmedRequestsOf(Event event) {
+        return eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests();
+    }
+
+    private long countByStatus(Event event, Status status) {
+        return participationRepository.getParticipationRequestsByEvent(event.getId()).stream()
+                .map(ParticipationRequest::getStatus)
+                .filter(status::equals)
+                .count();
+    }
+}
@@ -1,18 +1,31 @@
 package ru.practicum.ewm.client.stats;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 public class BaseClient {
+    protected static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     protected final RestTemplate rest;
+    private final MeterRegistry meterRegistry;
+    private final StatsCircuitBreaker circuitBreaker;
 
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
@@ -37,12 +50,81 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, parameters, null);
+        return timed(HttpMethod.GET, path, () -> makeAndSendRequest(HttpMethod.GET, path, parameters, null));
     }
 
     protected <F> ResponseEntity<F> getList(String uri, @Nullable Map<String, Object> parameters,
                                             ParameterizedTypeReference<F> type) {
-        return sendRequestType(uri, HttpMethod.GET, null, parameters, type);
+        return timed(HttpMethod.GET, uri, () -> sendRequestType(uri, HttpMethod.GET, null, parameters, type));
+    }
+
+    protected <T> ResponseEntity<Long> getStream(String path, Class<T> type, Consumer<T> consumer) {
+        ObjectReader reader = objectMapper().readerFor(type);
+        return timed(HttpMethod.GET, path, () -> {
+            Long received;
+            try {
+                received = rest.execute(path, HttpMethod.GET,
+                        request -> request.getHeaders().setAccept(List.of(APPLICATION_NDJSON)),
+                        response -> {
+                            long count = 0;
+                            try (MappingIterator<T> values = reader.readValues(response.getBody())) {
+                                while (values.hasNextValue()) {
+                                    consumer.accept(values.nextValue());
+                                    count++;
+                                }
+                            }
+                            return count;
+                        });
+            } catch (HttpStatusCodeException e) {
+                return ResponseEntity.status(e.getStatusCode()).build();
+            }
+            return ResponseEntity.ok(received);
+        });
+    }
+
+    private <F> ResponseEntity<F> timed(HttpMethod method, String path, Supplier<ResponseEntity<F>> request) {
+        String uri = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+        long generation = circuitBreaker.tryAcquire();
+        if (generation == StatsCircuitBreaker.REJECTED) {
+            meterRegistry.counter("stats.client.errors",
+                    "method", method.name(), "uri", uri, "status", "CIRCUIT_OPEN").increment();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        String exception = "none";
+        try {
+            ResponseEntity<F> response = request.get();
+            status = String.valueOf(response.getStatusCode().value());
+            if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onFailure(generation);
+            } else {
+                circuitBreaker.onSuccess(generation);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            circuitBreaker.onFailure(generation);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("stats.client.requests")
+                    .description("Requests sent to the stats server")
+                    .tags("method", method.name(), "uri", uri, "status", status, "exception", exception)
+                    .register(meterRegistry));
+            if (!status.startsWith("2")) {
+                meterRegistry.counter("stats.client.errors",
+                        "method", method.name(), "uri", uri, "status", status).increment();
+            }
+        }
+    }
+
+    private ObjectMapper objectMapper() {
+        for (HttpMessageConverter<?> converter : rest.getMessageConverters()) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jacksonConverter) {
+                return jacksonConverter.getObjectMapper();
+            }
+        }
+        return new ObjectMapper().findAndRegisterModules();
     }
 
     private <T, F> ResponseEntity<F> sendRequestType(String path, HttpMethod method,
@@ -69,7 +151,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(String path, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, parameters, body);
+        return timed(HttpMethod.POST, path, () -> makeAndSendRequest(HttpMethod.POST, path, parameters, body));
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
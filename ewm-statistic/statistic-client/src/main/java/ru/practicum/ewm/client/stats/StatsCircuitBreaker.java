@@ -0,0 +1,91 @@
+package ru.practicum.ewm.client.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+public class StatsCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    public static final long REJECTED = -1;
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(new Phase(State.CLOSED, 0, 0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    @Autowired
+    public StatsCircuitBreaker(@Value("${stats-server.circuit-breaker.enabled:true}") boolean enabled,
+                               @Value("${stats-server.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${stats-server.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.enabled = enabled;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+    }
+
+    public long tryAcquire() {
+        Phase current = phase.get();
+        if (!enabled || current.state() == State.CLOSED) {
+            return current.generation();
+        }
+        if (current.state() == State.OPEN && System.nanoTime() - current.openedAt() >= openDurationNanos) {
+            Phase trial = new Phase(State.HALF_OPEN, current.generation() + 1, current.openedAt());
+            if (phase.compareAndSet(current, trial)) {
+                return trial.generation();
+            }
+        }
+        rejectedCalls.incrementAndGet();
+        return REJECTED;
+    }
+
+    public void onSuccess(long generation) {
+        Phase current = phase.get();
+        if (current.generation() != generation) {
+            return;
+        }
+        if (current.state() == State.CLOSED) {
+            consecutiveFailures.set(0);
+        } else if (current.state() == State.HALF_OPEN
+                && phase.compareAndSet(current, new Phase(State.CLOSED, generation + 1, 0))) {
+            consecutiveFailures.set(0);
+            log.info("Stats server is responding again, circuit closed");
+        }
+    }
+
+    public void onFailure(long generation) {
+        Phase current = phase.get();
+        if (!enabled || current.generation() != generation) {
+            return;
+        }
+        int failures = current.state() == State.CLOSED ? consecutiveFailures.incrementAndGet() : failureThreshold;
+        if (current.state() != State.OPEN && failures >= failureThreshold
+                && phase.compareAndSet(current, new Phase(State.OPEN, generation + 1, System.nanoTime()))) {
+            log.warn("Stats server failed {} times in a row, circuit opened for {} ms", failures,
+                    TimeUnit.NANOSECONDS.toMillis(openDurationNanos));
+        }
+    }
+
+    public State getState() {
+        return phase.get().state();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+
+    private record Phase(State state, long generation, long openedAt) {
+    }
+}
@@ -1,11 +1,13 @@
 package ru.practicum.ewm.client.stats;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
@@ -15,52 +17,166 @@ import ru.practicum.ewm.dto.stats.ViewStats;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 
+@Slf4j
 @Service
 public class StatsClient extends BaseClient {
 
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final boolean asyncHits;
+    private final int batchSize;
+    private final BlockingQueue<EndpointHitDto> hitBuffer;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final AtomicLong droppedHits = new AtomicLong();
+    private final AtomicLong failedHits = new AtomicLong();
+
     @Autowired
-    public StatsClient(@Value("${stats-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public StatsClient(@Value("${stats-server.url}") String serverUrl,
+                       @Value("${stats-server.hits.async:true}") boolean asyncHits,
+                       @Value("${stats-server.hits.buffer-capacity:10000}") int bufferCapacity,
+                       @Value("${stats-server.hits.batch-size:100}") int batchSize,
+                       @Value("${stats-server.hits.flush-interval-ms:1000}") long flushIntervalMs,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                       RestTemplateBuilder builder,
+                       StatsConnectionPool connectionPool,
+                       StatsCircuitBreaker circuitBreaker,
+                       MeterRegistry meterRegistry) {
         super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory()).build());
+                .requestFactory(connectionPool::requestFactory).build(), meterRegistry, circuitBreaker);
+        this.asyncHits = asyncHits;
+        this.batchSize = batchSize;
+        this.hitBuffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(virtualThreads
+                ? Thread.ofVirtual().name("stats-hit-flusher").factory()
+                : Thread.ofPlatform().name("stats-hit-flusher").daemon().factory());
+        if (asyncHits) {
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     public ResponseEntity<Object> addRequest(EndpointHitDto endpointHitDto) {
         return post("/hit", endpointHitDto);
     }
 
+    public ResponseEntity<Object> addRequests(List<EndpointHitDto> endpointHitDtos) {
+        return post("/hit/batch", endpointHitDtos);
+    }
+
+    public void registerHit(EndpointHitDto endpointHitDto) {
+        if (!asyncHits) {
+            sendHit(endpointHitDto);
+            return;
+        }
+        if (!hitBuffer.offer(endpointHitDto)) {
+            long dropped = droppedHits.incrementAndGet();
+            log.warn("Stats hit buffer is full, hit for uri={} dropped (total dropped={})",
+                    endpointHitDto.getUri(), dropped);
+            return;
+        }
+        if (hitBuffer.size() >= batchSize && flushPending.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    public int getQueueDepth() {
+        return hitBuffer.size();
+    }
+
+    public long getDroppedHits() {
+        return droppedHits.get();
+    }
+
+    public long getFailedHits() {
+        return failedHits.get();
+    }
+
+    private void flush() {
+        flushPending.set(false);
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        while (hitBuffer.drainTo(batch, batchSize) > 0) {
+            sendBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void sendHit(EndpointHitDto endpointHitDto) {
+        try {
+            ResponseEntity<Object> response = addRequest(endpointHitDto);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                failedHits.incrementAndGet();
+                log.warn("Stats server rejected hit for uri={}, status={}", endpointHitDto.getUri(),
+                        response.getStatusCode());
+            }
+        } catch (RuntimeException e) {
+            failedHits.incrementAndGet();
+            log.warn("Failed to send hit for uri={} to stats server: {}", endpointHitDto.getUri(), e.getMessage());
+        }
+    }
+
+    private void sendBatch(List<EndpointHitDto> batch) {
+        try {
+            ResponseEntity<Object> response = addRequests(batch);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                failedHits.addAndGet(batch.size());
+                log.warn("Stats server rejected batch of {} hits, status={}", batch.size(), response.getStatusCode());
+            }
+        } catch (RuntimeException e) {
+            failedHits.addAndGet(batch.size());
+            log.warn("Failed to send batch of {} hits to stats server: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (asyncHits) {
+            flush();
+        }
+    }
+
 
     public ResponseEntity<List<ViewStats>> getStats(LocalDateTime start, LocalDateTime end,
                                                     @Nullable List<String> uris, boolean unique) {
-        Map<String, Object> parameters = new HashMap<>(Map.of(
-                "start", start.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                "end", end.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                "unique", unique));
-        String uri;
+        return getList(statsUri(start, end, uris, unique), null, new ParameterizedTypeReference<>() {
+        });
+    }
+
+    public ResponseEntity<Long> streamStats(LocalDateTime start, LocalDateTime end, @Nullable List<String> uris,
+                                            boolean unique, Consumer<ViewStats> consumer) {
+        return getStream(statsUri(start, end, uris, unique), ViewStats.class, consumer);
+    }
+
+    private String statsUri(LocalDateTime start, LocalDateTime end, @Nullable List<String> uris, boolean unique) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromPath("/stats")
+                .queryParam("start", start.format(DATE_TIME_FORMATTER))
+                .queryParam("end", end.format(DATE_TIME_FORMATTER));
         if (uris != null) {
-            for (String s : uris) {
-                parameters.put("uris", s);
-            }
-            uri = UriComponentsBuilder.fromPath("/stats")
-                    .queryParam("start", start)
-                    .queryParam("end", end)
-                    .queryParam("uris", uris)
-                    .queryParam("unique", unique)
-                    .build()
-                    .toUriString();
-        } else {
-            uri = UriComponentsBuilder.fromPath("/stats")
-                    .queryParam("start", start)
-                    .queryParam("end", end)
-                    .queryParam("unique", unique)
-                    .build()
-                    .toUriString();
+            uriBuilder.queryParam("uris", uris);
         }
-        return getList(uri, parameters, new ParameterizedTypeReference<>() {
-        });
+        return uriBuilder
+                .queryParam("unique", unique)
+                .build()
+                .toUriString();
     }
-}
\ No newline at end of file
+}
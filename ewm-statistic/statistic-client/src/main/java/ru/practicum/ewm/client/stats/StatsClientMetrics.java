@@ -0,0 +1,39 @@
+package ru.practicum.ewm.client.stats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StatsClientMetrics implements MeterBinder {
+
+    private final StatsClient statsClient;
+    private final StatsConnectionPool connectionPool;
+    private final StatsCircuitBreaker circuitBreaker;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("stats.client.hits.queue.depth", statsClient, StatsClient::getQueueDepth)
+                .description("Hits waiting in the buffer to be sent to the stats server")
+                .register(registry);
+        FunctionCounter.builder("stats.client.hits.dropped", statsClient, StatsClient::getDroppedHits)
+                .description("Hits dropped because the buffer was full")
+                .register(registry);
+        FunctionCounter.builder("stats.client.hits.failed", statsClient, StatsClient::getFailedHits)
+                .description("Hits the stats server failed to accept")
+                .register(registry);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionPool.getConnectionManager(), "stats-server")
+                .bindTo(registry);
+        Gauge.builder("stats.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Stats server circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(registry);
+        FunctionCounter.builder("stats.client.circuit.rejected", circuitBreaker, StatsCircuitBreaker::getRejectedCalls)
+                .description("Stats server calls rejected while the circuit was open")
+                .register(registry);
+    }
+}
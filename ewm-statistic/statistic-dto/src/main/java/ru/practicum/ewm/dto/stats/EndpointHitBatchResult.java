@@ -0,0 +1,16 @@
+package ru.practicum.ewm.dto.stats;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointHitBatchResult {
+
+    private Integer received;
+
+    private Integer saved;
+
+    private Integer rejected;
+}
@@ -8,7 +8,7 @@ import lombok.*;
 @AllArgsConstructor
 public class EndpointHitDto {
 
-    private Integer id;
+    private Long id;
 
     private String app;
 
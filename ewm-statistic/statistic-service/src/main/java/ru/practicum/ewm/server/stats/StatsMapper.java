@@ -1,12 +1,21 @@
 package ru.practicum.ewm.server.stats;
 
 import ru.practicum.ewm.dto.stats.EndpointHitDto;
+import ru.practicum.ewm.server.stats.exception.InvalidRequestException;
 import ru.practicum.ewm.server.stats.model.EndpointHit;
 
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
 
 public class StatsMapper {
+    private static final Pattern IPV4 = Pattern.compile("((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}"
+            + "(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)");
+    private static final Pattern IPV6_CHARACTERS = Pattern.compile("[0-9a-fA-F:.]+");
+
     public static EndpointHitDto toEndpointHitDto(EndpointHit endpointHit) {
         return EndpointHitDto.builder()
                 .id(endpointHit.getId())
@@ -18,11 +27,69 @@ public class StatsMapper {
     }
 
     public static EndpointHit toEndpointHit(EndpointHitDto endpointHitDto) {
+        String ip = normalizeIp(endpointHitDto.getIp());
+        if (ip == null) {
+            throw new InvalidRequestException("Invalid ip address " + endpointHitDto.getIp());
+        }
         return EndpointHit.builder()
                 .app(endpointHitDto.getApp())
                 .uri(endpointHitDto.getUri())
-                .ip(endpointHitDto.getIp())
+                .ip(ip)
                 .timestamp(LocalDateTime.parse(endpointHitDto.getTimestamp(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
                 .build();
     }
-}
\ No newline at end of file
+
+    public static boolean isIpAddress(String ip) {
+        return normalizeIp(ip) != null;
+    }
+
+    public static String normalizeIp(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        if (IPV4.matcher(ip).matches()) {
+            return ip;
+        }
+        if (ip.indexOf(':') < 0 || !IPV6_CHARACTERS.matcher(ip).matches()) {
+            return null;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(ip);
+            return address instanceof Inet6Address ? formatIpv6(address.getAddress()) : address.getHostAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static String formatIpv6(byte[] address) {
+        int[] groups = new int[8];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = (address[2 * i] & 0xff) << 8 | address[2 * i + 1] & 0xff;
+        }
+        int zerosStart = -1;
+        int zerosLength = 0;
+        for (int i = 0; i < groups.length; i++) {
+            int length = 0;
+            while (i + length < groups.length && groups[i + length] == 0) {
+                length++;
+            }
+            if (length > 1 && length > zerosLength) {
+                zerosStart = i;
+                zerosLength = length;
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < groups.length; i++) {
+            if (i == zerosStart) {
+                text.append("::");
+                i += zerosLength - 1;
+                continue;
+            }
+            if (!text.isEmpty() && text.charAt(text.length() - 1) != ':') {
+                text.append(':');
+            }
+            text.append(Integer.toHexString(groups[i]));
+        }
+        return text.toString();
+    }
+}
@@ -1,23 +1,43 @@
 package ru.practicum.ewm.server.stats.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.ewm.dto.stats.EndpointHitBatchResult;
 import ru.practicum.ewm.dto.stats.EndpointHitDto;
 import ru.practicum.ewm.dto.stats.ViewStats;
 import ru.practicum.ewm.server.stats.service.StatsService;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class StatsServerController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int NDJSON_CHUNK_SIZE = 1000;
+
     private final StatsService statsService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
@@ -26,15 +46,91 @@ public class StatsServerController {
         return statsService.addRequest(endpointHitDto);
     }
 
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public EndpointHitBatchResult addHits(@RequestBody List<EndpointHitDto> endpointHitDtos) {
+        log.info("Creating batch of {} requests", endpointHitDtos.size());
+        return statsService.addRequests(endpointHitDtos);
+    }
+
+    @PostMapping(value = "/hit/batch", consumes = APPLICATION_NDJSON)
+    @ResponseStatus(HttpStatus.CREATED)
+    public EndpointHitBatchResult addHitsNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(EndpointHitDto.class);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        EndpointHitBatchResult total = new EndpointHitBatchResult(0, 0, 0);
+        List<EndpointHitDto> chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unparseable NDJSON line: {}", e.getOriginalMessage());
+                chunk.add(null);
+            }
+            if (chunk.size() == NDJSON_CHUNK_SIZE) {
+                addTo(total, statsService.addRequests(chunk));
+                chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            addTo(total, statsService.addRequests(chunk));
+        }
+        log.info("Created NDJSON batch of {} requests, {} rejected", total.getReceived(), total.getRejected());
+        return total;
+    }
+
     @GetMapping("/stats")
     public List<ViewStats> getStats(
             @RequestParam(name = "start") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss", iso = DateTimeFormat.ISO.DATE) LocalDateTime start,
             @RequestParam(name = "end") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss", iso = DateTimeFormat.ISO.DATE) LocalDateTime end,
             @RequestParam(required = false, name = "uris") String[] uris,
-            @RequestParam(name = "unique", defaultValue = "false") boolean unique) throws UnsupportedEncodingException {
+            @RequestParam(name = "unique", defaultValue = "false") boolean unique,
+            @RequestParam(name = "approximate", defaultValue = "false") boolean approximate) throws UnsupportedEncodingException {
 
         log.info("Get stats");
-        return statsService.getStats(start, end, uris, unique);
+        return statsService.getStats(start, end, uris, unique, approximate);
+    }
+
+    @GetMapping(value = "/stats", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamStats(
+            @RequestParam(name = "start") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss", iso = DateTimeFormat.ISO.DATE) LocalDateTime start,
+            @RequestParam(name = "end") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss", iso = DateTimeFormat.ISO.DATE) LocalDateTime end,
+            @RequestParam(required = false, name = "uris") String[] uris,
+            @RequestParam(name = "unique", defaultValue = "false") boolean unique) {
+
+        log.info("Stream stats");
+        StreamingResponseBody body = outputStream -> {
+            OutputStream buffered = new BufferedOutputStream(outputStream);
+            statsService.streamStats(start, end, uris, unique, viewStats -> {
+                try {
+                    buffered.write(objectMapper.writeValueAsBytes(viewStats));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+
+    @GetMapping("/stats/top")
+    public List<ViewStats> getTop(@RequestParam(name = "hours", defaultValue = "1") int hours,
+                                  @RequestParam(name = "n", defaultValue = "10") int n) {
+        log.info("Get top {} uris for last {} hours", n, hours);
+        return statsService.getTop(hours, n);
+    }
+
+    private void addTo(EndpointHitBatchResult total, EndpointHitBatchResult chunk) {
+        total.setReceived(total.getReceived() + chunk.getReceived());
+        total.setSaved(total.getSaved() + chunk.getSaved());
+        total.setRejected(total.getRejected() + chunk.getRejected());
     }
 
 }
\ No newline at end of file
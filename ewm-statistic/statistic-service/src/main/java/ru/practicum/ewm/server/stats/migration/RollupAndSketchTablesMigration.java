@@ -0,0 +1,138 @@
+package ru.practicum.ewm.server.stats.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.server.stats.StatsMapper;
+import ru.practicum.ewm.server.stats.sketch.HyperLogLog;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Component
+public class RollupAndSketchTablesMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String CREATE_ROLLUP = "CREATE TABLE IF NOT EXISTS endpointhit_rollup (" +
+            "app VARCHAR(50) NOT NULL, " +
+            "uri VARCHAR(1000) NOT NULL, " +
+            "bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL, " +
+            "hits BIGINT NOT NULL, " +
+            "CONSTRAINT pk_endpointhit_rollup PRIMARY KEY (app, uri, bucket))";
+    private static final String CREATE_SKETCH = "CREATE TABLE IF NOT EXISTS endpointhit_ip_sketch (" +
+            "app VARCHAR(50) NOT NULL, " +
+            "uri VARCHAR(1000) NOT NULL, " +
+            "day_bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL, " +
+            "sketch BYTEA NOT NULL, " +
+            "CONSTRAINT pk_endpointhit_ip_sketch PRIMARY KEY (app, uri, day_bucket))";
+    private static final String BACKFILL_ROLLUP = "INSERT INTO endpointhit_rollup (app, uri, bucket, hits) " +
+            "SELECT app, uri, date_trunc('hour', timestamp), COUNT(*) FROM endpointhit " +
+            "WHERE timestamp IS NOT NULL GROUP BY app, uri, date_trunc('hour', timestamp) " +
+            "ON CONFLICT (app, uri, bucket) DO NOTHING";
+    private static final String SELECT_DAILY_IPS = "SELECT DISTINCT app, uri, date_trunc('day', timestamp) AS day, ip " +
+            "FROM endpointhit WHERE timestamp IS NOT NULL ORDER BY app, uri, day";
+    private static final String INSERT_SKETCH = "INSERT INTO endpointhit_ip_sketch (app, uri, day_bucket, sketch) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (app, uri, day_bucket) DO NOTHING";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("1.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "create rollup and sketch tables";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        jdbcTemplate.setFetchSize(10_000);
+        jdbcTemplate.execute(CREATE_ROLLUP);
+        jdbcTemplate.execute(CREATE_SKETCH);
+        int rollups = jdbcTemplate.update(BACKFILL_ROLLUP);
+
+        SketchBackfill backfill = new SketchBackfill(jdbcTemplate);
+        jdbcTemplate.query(SELECT_DAILY_IPS, backfill);
+        backfill.finish();
+        log.info("Backfilled {} hourly rollups and {} daily ip sketches from endpointhit", rollups,
+                backfill.sketches);
+    }
+
+    private static final class SketchBackfill implements RowCallbackHandler {
+        private final JdbcTemplate jdbcTemplate;
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private String app;
+        private String uri;
+        private Timestamp day;
+        private HyperLogLog sketch;
+        private int sketches;
+
+        private SketchBackfill(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String ip = StatsMapper.normalizeIp(rs.getString("ip"));
+            if (ip == null) {
+                return;
+            }
+            String rowApp = rs.getString("app");
+            String rowUri = rs.getString("uri");
+            Timestamp rowDay = rs.getTimestamp("day");
+            if (sketch == null || !rowApp.equals(app) || !rowUri.equals(uri) || !Objects.equals(rowDay, day)) {
+                completeSketch();
+                app = rowApp;
+                uri = rowUri;
+                day = rowDay;
+                sketch = new HyperLogLog();
+            }
+            sketch.add(ip);
+        }
+
+        private void finish() {
+            completeSketch();
+            flushBatch();
+        }
+
+        private void completeSketch() {
+            if (sketch == null) {
+                return;
+            }
+            batch.add(new Object[]{app, uri, day, sketch.toBytes()});
+            sketches++;
+            if (batch.size() >= BATCH_SIZE) {
+                flushBatch();
+            }
+        }
+
+        private void flushBatch() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SKETCH, batch);
+                batch.clear();
+            }
+        }
+    }
+}
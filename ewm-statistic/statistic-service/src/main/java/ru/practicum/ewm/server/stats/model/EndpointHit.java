@@ -1,30 +1,21 @@
 package ru.practicum.ewm.server.stats.model;
 
-import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
-@Entity
 @Data
-@Table(name = "endpointhit")
 @Builder
 public class EndpointHit {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    private Long id;
 
-    @Column(nullable = false)
     private String app;
 
-    @Column(nullable = false)
     private String uri;
 
-    @Column(nullable = false)
     private String ip;
 
-    @Column(nullable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
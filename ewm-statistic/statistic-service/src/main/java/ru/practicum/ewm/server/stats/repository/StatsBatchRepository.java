@@ -0,0 +1,47 @@
+package ru.practicum.ewm.server.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class StatsBatchRepository {
+
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final String INSERT_PREFIX = "INSERT INTO endpointhit (app_id, uri_id, ip, timestamp) VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatsDictionaryRepository dictionaryRepository;
+
+    public int saveAll(List<EndpointHit> hits) {
+        int saved = 0;
+        for (int from = 0; from < hits.size(); from += ROWS_PER_STATEMENT) {
+            List<EndpointHit> chunk = hits.subList(from, Math.min(from + ROWS_PER_STATEMENT, hits.size()));
+            saved += insertChunk(chunk);
+        }
+        return saved;
+    }
+
+    private int insertChunk(List<EndpointHit> chunk) {
+        Map<String, Integer> appIds = dictionaryRepository.resolveAppIds(chunk.stream().map(EndpointHit::getApp).toList());
+        Map<String, Integer> uriIds = dictionaryRepository.resolveUriIds(chunk.stream().map(EndpointHit::getUri).toList());
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(chunk.size() * 4);
+        for (int i = 0; i < chunk.size(); i++) {
+            EndpointHit hit = chunk.get(i);
+            sql.append(i == 0 ? "(?, ?, ?::inet, ?)" : ", (?, ?, ?::inet, ?)");
+            args.add(appIds.get(hit.getApp()));
+            args.add(uriIds.get(hit.getUri()));
+            args.add(hit.getIp());
+            args.add(Timestamp.valueOf(hit.getTimestamp()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.ewm.server.stats.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+public class StatsDictionaryRepository {
+
+    private static final int VALUES_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int cacheSize;
+    private final Dictionary apps = new Dictionary("stats_app", "app");
+    private final Dictionary uris = new Dictionary("stats_uri", "uri");
+
+    public StatsDictionaryRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${stats.dictionary.cache-size:100000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheSize = cacheSize;
+    }
+
+    public Map<String, Integer> resolveAppIds(Collection<String> values) {
+        return resolve(apps, values, true);
+    }
+
+    public Map<String, Integer> resolveUriIds(Collection<String> values) {
+        return resolve(uris, values, true);
+    }
+
+    public Map<String, Integer> findUriIds(Collection<String> values) {
+        return resolve(uris, values, false);
+    }
+
+    private Map<String, Integer> resolve(Dictionary dictionary, Collection<String> values, boolean create) {
+        Map<String, Integer> resolved = new HashMap<>();
+        SortedSet<String> missing = new TreeSet<>();
+        for (String value : values) {
+            Integer id = dictionary.cache().get(value);
+            if (id != null) {
+                resolved.put(value, id);
+            } else {
+                missing.add(value);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        List<String> missingValues = new ArrayList<>(missing);
+        if (create) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + dictionary.table() + " (" + dictionary.column() + ") VALUES (?) "
+                    + "ON CONFLICT (" + dictionary.column() + ") DO NOTHING", missingValues, VALUES_PER_STATEMENT,
+                    (ps, value) -> ps.setString(1, value));
+        }
+        Map<String, Integer> loaded = new HashMap<>();
+        for (int from = 0; from < missingValues.size(); from += VALUES_PER_STATEMENT) {
+            List<String> chunk = missingValues.subList(from, Math.min(from + VALUES_PER_STATEMENT, missingValues.size()));
+            jdbcTemplate.query("SELECT id, " + dictionary.column() + " FROM " + dictionary.table() + " WHERE "
+                            + dictionary.column() + " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?"))
+                            + ")",
+                    rs -> {
+                        loaded.put(rs.getString(2), rs.getInt(1));
+                    }, chunk.toArray());
+        }
+        resolved.putAll(loaded);
+        cacheAfterCommit(dictionary, loaded);
+        return resolved;
+    }
+
+    private void cacheAfterCommit(Dictionary dictionary, Map<String, Integer> loaded) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(dictionary, loaded);
+                }
+            });
+        } else {
+            cache(dictionary, loaded);
+        }
+    }
+
+    private void cache(Dictionary dictionary, Map<String, Integer> loaded) {
+        if (dictionary.cache().size() + loaded.size() > cacheSize) {
+            dictionary.cache().clear();
+        }
+        dictionary.cache().putAll(loaded);
+    }
+
+    private record Dictionary(String table, String column, Map<String, Integer> cache) {
+
+        private Dictionary(String table, String column) {
+            this(table, column, new ConcurrentHashMap<>());
+        }
+    }
+}
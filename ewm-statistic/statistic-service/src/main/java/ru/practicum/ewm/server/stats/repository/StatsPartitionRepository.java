@@ -0,0 +1,71 @@
+package ru.practicum.ewm.server.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Repository
+@RequiredArgsConstructor
+public class StatsPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "endpointhit_p";
+    private static final DateTimeFormatter SUFFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+    private static final String SELECT_PARTITIONS = "SELECT child.relname FROM pg_inherits " +
+            "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent " +
+            "JOIN pg_class child ON child.oid = pg_inherits.inhrelid " +
+            "WHERE parent.relname = 'endpointhit'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<YearMonth> findMonthPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), SUFFIX_FORMATTER));
+            }
+        }
+        return months;
+    }
+
+    @Transactional
+    public int createMonthPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+            return 0;
+        }
+        String from = "'" + month.atDay(1).atStartOfDay() + "'";
+        String to = "'" + month.plusMonths(1).atDay(1).atStartOfDay() + "'";
+        jdbcTemplate.execute("LOCK TABLE endpointhit_default IN EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE endpointhit INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM endpointhit_default " +
+                "WHERE timestamp >= " + from + " AND timestamp < " + to + " RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved");
+        jdbcTemplate.execute("ALTER TABLE endpointhit ATTACH PARTITION " + name +
+                " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+        return moved;
+    }
+
+    public void dropMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    public int deleteDefaultPartitionHitsBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM endpointhit_default WHERE timestamp < ?", Timestamp.valueOf(cutoff));
+    }
+
+    private String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX_FORMATTER);
+    }
+}
@@ -1,38 +1,144 @@
 package ru.practicum.ewm.server.stats.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.dto.stats.ViewStats;
 import ru.practicum.ewm.server.stats.model.EndpointHit;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.List;
-
-@EnableJpaRepositories
-public interface StatsRepository extends JpaRepository<EndpointHit, Integer> {
-
-    @Query(value = "select new ru.practicum.ewm.dto.stats.ViewStats(eh.app, eh.uri, cast(count(eh.ip) AS int) as hits) " +
-            "from EndpointHit as eh " +
-            "where eh.uri in ?3 and eh.timestamp >= ?1 and eh.timestamp <=?2 " +
-            "group by eh.app, eh.uri order by hits desc")
-    List<ViewStats> requestStats(LocalDateTime startTime, LocalDateTime endTime, String[] uris);
-
-    @Query(value = "select new ru.practicum.ewm.dto.stats.ViewStats(eh.app, eh.uri, cast(count(eh.ip) AS int) as hits) " +
-            "from EndpointHit as eh " +
-            "where eh.timestamp >= ?1 and eh.timestamp <=?2 " +
-            "group by eh.app, eh.uri order by hits desc")
-    List<ViewStats> requestAllStats(LocalDateTime startTime, LocalDateTime endTime);
-
-    @Query(value = "select new ru.practicum.ewm.dto.stats.ViewStats(eh.app, eh.uri, cast(count(DISTINCT eh.ip) AS int) as hits) " +
-            "from EndpointHit as eh " +
-            "where eh.uri in ?3 and eh.timestamp >= ?1 and eh.timestamp <=?2 " +
-            "group by eh.app, eh.uri order by hits desc")
-    List<ViewStats> requestUniqueIpStats(LocalDateTime startTime, LocalDateTime endTime, String[] uris);
-
-    @Query(value = "select new ru.practicum.ewm.dto.stats.ViewStats(eh.app, eh.uri,cast(count(DISTINCT eh.ip) AS int) as hits) " +
-            "from EndpointHit as eh " +
-            "where eh.timestamp >= ?1 and eh.timestamp <=?2 " +
-            "group by eh.app, eh.uri order by hits desc")
-    List<ViewStats> requestUniqueIpAllStats(LocalDateTime startTime, LocalDateTime endTime);
-}
\ No newline at end of file
+import java.util.*;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class StatsRepository {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String INSERT = "INSERT INTO endpointhit (app_id, uri_id, ip, timestamp) " +
+            "VALUES (?, ?, ?::inet, ?) RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatsDictionaryRepository dictionaryRepository;
+
+    public EndpointHit save(EndpointHit endpointHit) {
+        Integer appId = dictionaryRepository.resolveAppIds(List.of(endpointHit.getApp())).get(endpointHit.getApp());
+        Integer uriId = dictionaryRepository.resolveUriIds(List.of(endpointHit.getUri())).get(endpointHit.getUri());
+        Long id = jdbcTemplate.queryForObject(INSERT, Long.class, appId, uriId, endpointHit.getIp(),
+                Timestamp.valueOf(endpointHit.getTimestamp()));
+        endpointHit.setId(id);
+        return endpointHit;
+    }
+
+    public List<ViewStats> requestStats(LocalDateTime startTime, LocalDateTime endTime, String[] uris) {
+        return countHits(startTime, endTime, true, uris, false);
+    }
+
+    public List<ViewStats> requestAllStats(LocalDateTime startTime, LocalDateTime endTime) {
+        return countHits(startTime, endTime, true, null, false);
+    }
+
+    public List<ViewStats> requestUniqueIpStats(LocalDateTime startTime, LocalDateTime endTime, String[] uris) {
+        return countHits(startTime, endTime, true, uris, true);
+    }
+
+    public List<ViewStats> requestUniqueIpAllStats(LocalDateTime startTime, LocalDateTime endTime) {
+        return countHits(startTime, endTime, true, null, true);
+    }
+
+    public List<ViewStats> requestStatsBefore(LocalDateTime startTime, LocalDateTime endTimeExclusive, String[] uris) {
+        return countHits(startTime, endTimeExclusive, false, uris, false);
+    }
+
+    public List<ViewStats> requestAllStatsBefore(LocalDateTime startTime, LocalDateTime endTimeExclusive) {
+        return countHits(startTime, endTimeExclusive, false, null, false);
+    }
+
+    public void streamStats(LocalDateTime startTime, LocalDateTime endTime, String[] uris, boolean uniqueIps,
+                            boolean useRollups, Consumer<ViewStats> consumer) {
+        Collection<Integer> uriIds = uris == null ? null : dictionaryRepository.findUriIds(Arrays.asList(uris)).values();
+        List<Object> args = new ArrayList<>();
+        String sql;
+        LocalDateTime firstFullBucket = StatsRollupRepository.bucketOf(startTime);
+        if (firstFullBucket.isBefore(startTime)) {
+            firstFullBucket = firstFullBucket.plus(1, StatsRollupRepository.BUCKET_UNIT);
+        }
+        LocalDateTime lastFullBucketEnd = StatsRollupRepository.bucketOf(endTime);
+        if (uniqueIps || !useRollups || !firstFullBucket.isBefore(lastFullBucketEnd)) {
+            sql = countHitsSql(startTime, endTime, true, uriIds, uniqueIps, args) + " ORDER BY hits DESC";
+        } else {
+            StringBuilder union = new StringBuilder("SELECT app, uri, SUM(hits) AS hits FROM (")
+                    .append(countHitsSql(startTime, firstFullBucket, false, uriIds, false, args))
+                    .append(" UNION ALL SELECT app, uri, SUM(hits) AS hits FROM endpointhit_rollup ")
+                    .append("WHERE bucket >= ? AND bucket < ?");
+            args.add(Timestamp.valueOf(firstFullBucket));
+            args.add(Timestamp.valueOf(lastFullBucketEnd));
+            if (uris != null) {
+                union.append(uris.length == 0
+                        ? " AND 1 = 0"
+                        : " AND uri IN (" + String.join(", ", Collections.nCopies(uris.length, "?")) + ")");
+                args.addAll(Arrays.asList(uris));
+            }
+            union.append(" GROUP BY app, uri UNION ALL ")
+                    .append(countHitsSql(lastFullBucketEnd, endTime, true, uriIds, false, args))
+                    .append(") parts GROUP BY app, uri ORDER BY hits DESC");
+            sql = union.toString();
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(toViewStats(rs)));
+    }
+
+    private List<ViewStats> countHits(LocalDateTime startTime, LocalDateTime endTime, boolean endInclusive,
+                                      String[] uris, boolean uniqueIps) {
+        Collection<Integer> uriIds = null;
+        if (uris != null) {
+            uriIds = dictionaryRepository.findUriIds(Arrays.asList(uris)).values();
+            if (uriIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = countHitsSql(startTime, endTime, endInclusive, uriIds, uniqueIps, args) + " ORDER BY hits DESC";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> toViewStats(rs), args.toArray());
+    }
+
+    private String countHitsSql(LocalDateTime startTime, LocalDateTime endTime, boolean endInclusive,
+                                Collection<Integer> uriIds, boolean uniqueIps, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT stats_app.app, stats_uri.uri, counted.hits FROM (")
+                .append("SELECT app_id, uri_id, ")
+                .append(uniqueIps ? "COUNT(DISTINCT ip)" : "COUNT(*)")
+                .append(" AS hits FROM endpointhit WHERE timestamp >= ? AND timestamp ")
+                .append(endInclusive ? "<= ?" : "< ?");
+        args.add(Timestamp.valueOf(startTime));
+        args.add(Timestamp.valueOf(endTime));
+        if (uriIds != null) {
+            sql.append(uriIds.isEmpty()
+                    ? " AND 1 = 0"
+                    : " AND uri_id IN (" + String.join(", ", Collections.nCopies(uriIds.size(), "?")) + ")");
+            args.addAll(uriIds);
+        }
+        return sql.append(" GROUP BY app_id, uri_id) counted ")
+                .append("JOIN stats_app ON stats_app.id = counted.app_id ")
+                .append("JOIN stats_uri ON stats_uri.id = counted.uri_id")
+                .toString();
+    }
+
+    private ViewStats toViewStats(ResultSet rs) throws SQLException {
+        return ViewStats.builder()
+                .app(rs.getString("app"))
+                .uri(rs.getString("uri"))
+                .hits(rs.getInt("hits"))
+                .build();
+    }
+}
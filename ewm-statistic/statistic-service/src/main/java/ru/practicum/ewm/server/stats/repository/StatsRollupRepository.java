@@ -0,0 +1,71 @@
+package ru.practicum.ewm.server.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.dto.stats.ViewStats;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Repository
+@RequiredArgsConstructor
+public class StatsRollupRepository {
+
+    public static final ChronoUnit BUCKET_UNIT = ChronoUnit.HOURS;
+
+    private static final String UPSERT = "INSERT INTO endpointhit_rollup (app, uri, bucket, hits) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (app, uri, bucket) DO UPDATE SET hits = endpointhit_rollup.hits + EXCLUDED.hits";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static LocalDateTime bucketOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(BUCKET_UNIT);
+    }
+
+    public void addHits(SortedMap<RollupKey, Long> increments) {
+        List<Object[]> args = new ArrayList<>(increments.size());
+        increments.forEach((key, count) -> args.add(new Object[]{key.app(), key.uri(),
+                Timestamp.valueOf(key.bucket()), count}));
+        jdbcTemplate.batchUpdate(UPSERT, args);
+    }
+
+    public int deleteBefore(LocalDateTime bucket) {
+        return jdbcTemplate.update("DELETE FROM endpointhit_rollup WHERE bucket < ?", Timestamp.valueOf(bucket));
+    }
+
+    public List<ViewStats> sumHits(LocalDateTime fromBucket, LocalDateTime toBucketExclusive, String[] uris) {
+        StringBuilder sql = new StringBuilder("SELECT app, uri, SUM(hits) AS hits FROM endpointhit_rollup " +
+                "WHERE bucket >= ? AND bucket < ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(fromBucket));
+        args.add(Timestamp.valueOf(toBucketExclusive));
+        if (uris != null) {
+            if (uris.length == 0) {
+                return Collections.emptyList();
+            }
+            sql.append(" AND uri IN (").append(String.join(", ", Collections.nCopies(uris.length, "?"))).append(")");
+            args.addAll(Arrays.asList(uris));
+        }
+        sql.append(" GROUP BY app, uri");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> ViewStats.builder()
+                .app(rs.getString("app"))
+                .uri(rs.getString("uri"))
+                .hits(rs.getInt("hits"))
+                .build(), args.toArray());
+    }
+
+    public record RollupKey(String app, String uri, LocalDateTime bucket) implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::app)
+                .thenComparing(RollupKey::uri)
+                .thenComparing(RollupKey::bucket);
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
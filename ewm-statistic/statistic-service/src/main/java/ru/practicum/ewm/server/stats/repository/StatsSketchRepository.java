@@ -0,0 +1,94 @@
+package ru.practicum.ewm.server.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.server.stats.StatsMapper;
+import ru.practicum.ewm.server.stats.sketch.HyperLogLog;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Repository
+@RequiredArgsConstructor
+public class StatsSketchRepository {
+
+    public static final ChronoUnit SKETCH_UNIT = ChronoUnit.DAYS;
+
+    private static final String INSERT = "INSERT INTO endpointhit_ip_sketch (app, uri, day_bucket, sketch) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (app, uri, day_bucket) DO NOTHING";
+    private static final String SELECT_FOR_UPDATE = "SELECT sketch FROM endpointhit_ip_sketch " +
+            "WHERE app = ? AND uri = ? AND day_bucket = ? FOR UPDATE";
+    private static final String UPDATE = "UPDATE endpointhit_ip_sketch SET sketch = ? " +
+            "WHERE app = ? AND uri = ? AND day_bucket = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static LocalDateTime dayOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(SKETCH_UNIT);
+    }
+
+    public void mergeSketch(String app, String uri, LocalDateTime day, HyperLogLog delta) {
+        Timestamp dayBucket = Timestamp.valueOf(day);
+        if (jdbcTemplate.update(INSERT, app, uri, dayBucket, delta.toBytes()) > 0) {
+            return;
+        }
+        byte[] stored = jdbcTemplate.queryForObject(SELECT_FOR_UPDATE, byte[].class, app, uri, dayBucket);
+        HyperLogLog sketch = HyperLogLog.fromBytes(stored);
+        sketch.merge(delta);
+        jdbcTemplate.update(UPDATE, sketch.toBytes(), app, uri, dayBucket);
+    }
+
+    public int deleteBefore(LocalDateTime day) {
+        return jdbcTemplate.update("DELETE FROM endpointhit_ip_sketch WHERE day_bucket < ?", Timestamp.valueOf(day));
+    }
+
+    public void mergeSketches(Map<String, HyperLogLog> target, LocalDateTime fromDay, LocalDateTime toDayExclusive,
+                              String[] uris) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT app, uri, sketch FROM endpointhit_ip_sketch WHERE day_bucket >= ? AND day_bucket < ?"
+                + uriFilter("uri", uris, args, Timestamp.valueOf(fromDay), Timestamp.valueOf(toDayExclusive));
+        jdbcTemplate.query(sql, rs -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("sketch"));
+            target.merge(key(rs.getString("app"), rs.getString("uri")), sketch, (old, added) -> {
+                old.merge(added);
+                return old;
+            });
+        }, args.toArray());
+    }
+
+    public void mergeRawIps(Map<String, HyperLogLog> target, LocalDateTime from, LocalDateTime toExclusive,
+                            String[] uris) {
+        if (!from.isBefore(toExclusive)) {
+            return;
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT DISTINCT stats_app.app, stats_uri.uri, host(endpointhit.ip) AS ip FROM endpointhit "
+                + "JOIN stats_app ON stats_app.id = endpointhit.app_id "
+                + "JOIN stats_uri ON stats_uri.id = endpointhit.uri_id "
+                + "WHERE endpointhit.ip IS NOT NULL AND endpointhit.timestamp >= ? AND endpointhit.timestamp < ?"
+                + uriFilter("stats_uri.uri", uris, args, Timestamp.valueOf(from), Timestamp.valueOf(toExclusive));
+        jdbcTemplate.query(sql, rs -> {
+            target.computeIfAbsent(key(rs.getString("app"), rs.getString("uri")), key -> new HyperLogLog())
+                    .add(StatsMapper.normalizeIp(rs.getString("ip")));
+        }, args.toArray());
+    }
+
+    public static String key(String app, String uri) {
+        return app + '\n' + uri;
+    }
+
+    private String uriFilter(String uriColumn, String[] uris, List<Object> args, Timestamp from, Timestamp to) {
+        args.add(from);
+        args.add(to);
+        if (uris == null) {
+            return "";
+        }
+        args.addAll(Arrays.asList(uris));
+        return uris.length == 0
+                ? " AND 1 = 0"
+                : " AND " + uriColumn + " IN (" + String.join(", ", Collections.nCopies(uris.length, "?")) + ")";
+    }
+}
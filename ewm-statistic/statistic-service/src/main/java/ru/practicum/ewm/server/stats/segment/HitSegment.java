@@ -0,0 +1,148 @@
+package ru.practicum.ewm.server.stats.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+public class HitSegment {
+
+    private static final int MAGIC = 0x45574D48;
+    private static final int HEADER_BYTES = 32;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int BASE_OFFSET = 8;
+    private static final int ROW_COUNT_OFFSET = 16;
+    private static final int MIN_DELTA_OFFSET = 20;
+    private static final int MAX_DELTA_OFFSET = 24;
+    private static final int COLUMNS = 4;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long baseSecond;
+    private final int timestampColumn;
+    private final int appColumn;
+    private final int uriColumn;
+    private final int ipColumn;
+    private volatile int rowCount;
+    private volatile int minDelta;
+    private volatile int maxDelta;
+
+    private HitSegment(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.baseSecond = buffer.getLong(BASE_OFFSET);
+        this.timestampColumn = HEADER_BYTES;
+        this.appColumn = timestampColumn + capacity * Integer.BYTES;
+        this.uriColumn = appColumn + capacity * Integer.BYTES;
+        this.ipColumn = uriColumn + capacity * Integer.BYTES;
+        this.minDelta = buffer.getInt(MIN_DELTA_OFFSET);
+        this.maxDelta = buffer.getInt(MAX_DELTA_OFFSET);
+        this.rowCount = buffer.getInt(ROW_COUNT_OFFSET);
+    }
+
+    public static HitSegment create(Path file, int capacity, long baseSecond) {
+        MappedByteBuffer buffer = map(file, HEADER_BYTES + (long) capacity * COLUMNS * Integer.BYTES,
+                StandardOpenOption.CREATE_NEW);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putLong(BASE_OFFSET, baseSecond);
+        buffer.putInt(ROW_COUNT_OFFSET, 0);
+        buffer.putInt(MIN_DELTA_OFFSET, Integer.MAX_VALUE);
+        buffer.putInt(MAX_DELTA_OFFSET, Integer.MIN_VALUE);
+        return new HitSegment(file, buffer);
+    }
+
+    public static HitSegment open(Path file) {
+        MappedByteBuffer buffer = map(file, -1);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a hit segment: " + file);
+        }
+        return new HitSegment(file, buffer);
+    }
+
+    public boolean isFull() {
+        return rowCount == capacity;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public boolean append(long epochSecond, int app, int uri, int ip) {
+        long delta = epochSecond - baseSecond;
+        if (isFull() || delta < Integer.MIN_VALUE || delta > Integer.MAX_VALUE) {
+            return false;
+        }
+        int row = rowCount;
+        int offset = row * Integer.BYTES;
+        buffer.putInt(timestampColumn + offset, (int) delta);
+        buffer.putInt(appColumn + offset, app);
+        buffer.putInt(uriColumn + offset, uri);
+        buffer.putInt(ipColumn + offset, ip);
+        if (delta < minDelta) {
+            minDelta = (int) delta;
+            buffer.putInt(MIN_DELTA_OFFSET, minDelta);
+        }
+        if (delta > maxDelta) {
+            maxDelta = (int) delta;
+            buffer.putInt(MAX_DELTA_OFFSET, maxDelta);
+        }
+        buffer.putInt(ROW_COUNT_OFFSET, row + 1);
+        rowCount = row + 1;
+        return true;
+    }
+
+    public void scan(long fromSecond, long toSecond, BitSet uris, boolean withIp, HitVisitor visitor) {
+        int rows = rowCount;
+        long from = fromSecond - baseSecond;
+        long to = toSecond - baseSecond;
+        if (rows == 0 || to < minDelta || from > maxDelta) {
+            return;
+        }
+        boolean coversAll = from <= minDelta && to >= maxDelta;
+        for (int row = 0; row < rows; row++) {
+            int offset = row * Integer.BYTES;
+            if (!coversAll) {
+                int delta = buffer.getInt(timestampColumn + offset);
+                if (delta < from || delta > to) {
+                    continue;
+                }
+            }
+            int uri = buffer.getInt(uriColumn + offset);
+            if (uris != null && !uris.get(uri)) {
+                continue;
+            }
+            visitor.visit(buffer.getInt(appColumn + offset), uri, withIp ? buffer.getInt(ipColumn + offset) : -1);
+        }
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private static MappedByteBuffer map(Path file, long size, StandardOpenOption... extraOptions) {
+        StandardOpenOption[] options = new StandardOpenOption[extraOptions.length + 2];
+        options[0] = StandardOpenOption.READ;
+        options[1] = StandardOpenOption.WRITE;
+        System.arraycopy(extraOptions, 0, options, 2, extraOptions.length);
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size < 0 ? channel.size() : size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map hit segment " + file, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface HitVisitor {
+        void visit(int app, int uri, int ip);
+    }
+}
@@ -0,0 +1,197 @@
+package ru.practicum.ewm.server.stats.segment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.storage", havingValue = "segment")
+public class SegmentHitStore {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".hits";
+    private static final int MAX_ROWS_PER_SEGMENT = (Integer.MAX_VALUE - 64) / (4 * Integer.BYTES);
+
+    private final Path directory;
+    private final int rowsPerSegment;
+    private final StringDictionary apps;
+    private final StringDictionary uris;
+    private final StringDictionary ips;
+    private final List<HitSegment> segments = new CopyOnWriteArrayList<>();
+    private long totalRows;
+
+    public SegmentHitStore(@Value("${stats.segment.directory:./stats-segments}") String directory,
+                           @Value("${stats.segment.rows-per-segment:1048576}") int rowsPerSegment) {
+        if (rowsPerSegment <= 0 || rowsPerSegment > MAX_ROWS_PER_SEGMENT) {
+            throw new IllegalArgumentException("stats.segment.rows-per-segment must be between 1 and "
+                    + MAX_ROWS_PER_SEGMENT);
+        }
+        this.directory = Paths.get(directory);
+        this.rowsPerSegment = rowsPerSegment;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create segment directory " + directory, e);
+        }
+        this.apps = new StringDictionary(this.directory.resolve("app.dict"));
+        this.uris = new StringDictionary(this.directory.resolve("uri.dict"));
+        this.ips = new StringDictionary(this.directory.resolve("ip.dict"));
+        loadSegments();
+        log.info("Opened hit store in {}: {} segments, {} hits, {} uris, {} ips",
+                this.directory.toAbsolutePath(), segments.size(), totalRows, uris.size(), ips.size());
+    }
+
+    public synchronized long append(EndpointHit hit) {
+        long epochSecond = hit.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+        int app = apps.idOf(hit.getApp());
+        int uri = uris.idOf(hit.getUri());
+        int ip = ips.idOf(hit.getIp());
+        HitSegment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || !active.append(epochSecond, app, uri, ip)) {
+            active = newSegment(epochSecond);
+            active.append(epochSecond, app, uri, ip);
+        }
+        return ++totalRows;
+    }
+
+    public synchronized int appendAll(List<EndpointHit> hits) {
+        hits.forEach(this::append);
+        return hits.size();
+    }
+
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uriFilter, boolean unique) {
+        BitSet uriIds = null;
+        if (uriFilter != null) {
+            uriIds = new BitSet();
+            for (String uri : uriFilter) {
+                int id = uris.find(uri);
+                if (id != StringDictionary.ABSENT) {
+                    uriIds.set(id);
+                }
+            }
+            if (uriIds.isEmpty()) {
+                return List.of();
+            }
+        }
+        long fromSecond = start.toEpochSecond(ZoneOffset.UTC) + (start.getNano() > 0 ? 1 : 0);
+        long toSecond = end.toEpochSecond(ZoneOffset.UTC);
+
+        Map<Long, int[]> hitCounts = new HashMap<>();
+        Map<Long, IpSet> uniqueIps = new HashMap<>();
+        HitSegment.HitVisitor visitor = unique
+                ? (app, uri, ip) -> uniqueIps.computeIfAbsent(key(app, uri), key -> new IpSet()).add(ip)
+                : (app, uri, ip) -> hitCounts.computeIfAbsent(key(app, uri), key -> new int[1])[0]++;
+        for (HitSegment segment : segments) {
+            segment.scan(fromSecond, toSecond, uriIds, unique, visitor);
+        }
+
+        List<ViewStats> list = new ArrayList<>();
+        if (unique) {
+            uniqueIps.forEach((key, ipIds) -> list.add(toViewStats(key, ipIds.size())));
+        } else {
+            hitCounts.forEach((key, count) -> list.add(toViewStats(key, count[0])));
+        }
+        list.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return list;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        segments.forEach(HitSegment::force);
+        for (StringDictionary dictionary : List.of(apps, uris, ips)) {
+            try {
+                dictionary.force();
+                dictionary.close();
+            } catch (IOException e) {
+                log.warn("Failed to close hit store dictionary: {}", e.getMessage());
+            }
+        }
+    }
+
+    private ViewStats toViewStats(long key, int hits) {
+        return ViewStats.builder()
+                .app(apps.valueOf((int) (key >>> 32)))
+                .uri(uris.valueOf((int) key))
+                .hits(hits)
+                .build();
+    }
+
+    private static long key(int app, int uri) {
+        return ((long) app << 32) | (uri & 0xFFFFFFFFL);
+    }
+
+    private HitSegment newSegment(long baseSecond) {
+        Path file = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        HitSegment segment = HitSegment.create(file, rowsPerSegment, baseSecond);
+        segments.add(segment);
+        log.debug("Created hit segment {}", file);
+        return segment;
+    }
+
+    private void loadSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().forEach(file -> {
+                HitSegment segment = HitSegment.open(file);
+                segments.add(segment);
+                totalRows += segment.getRowCount();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list segment directory " + directory, e);
+        }
+    }
+
+    private static final class IpSet {
+        private int[] ips = new int[16];
+        private int size;
+        private int distinct;
+
+        void add(int ip) {
+            if (size == ips.length) {
+                compact();
+                if (size > ips.length / 2) {
+                    ips = Arrays.copyOf(ips, ips.length * 2);
+                }
+            }
+            ips[size++] = ip;
+        }
+
+        int size() {
+            compact();
+            return size;
+        }
+
+        private void compact() {
+            if (distinct == size) {
+                return;
+            }
+            Arrays.sort(ips, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || ips[i] != ips[unique - 1]) {
+                    ips[unique++] = ips[i];
+                }
+            }
+            size = unique;
+            distinct = unique;
+        }
+    }
+}
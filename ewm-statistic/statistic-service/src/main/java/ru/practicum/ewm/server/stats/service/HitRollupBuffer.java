@@ -0,0 +1,117 @@
+package ru.practicum.ewm.server.stats.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+import ru.practicum.ewm.server.stats.repository.StatsRollupRepository;
+import ru.practicum.ewm.server.stats.repository.StatsRollupRepository.RollupKey;
+import ru.practicum.ewm.server.stats.repository.StatsSketchRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HitRollupBuffer {
+
+    private final StatsRollupRepository statsRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<RollupKey, Long> pending = new ConcurrentHashMap<>();
+    private volatile SortedMap<RollupKey, Long> flushing = Collections.emptySortedMap();
+
+    public void recordAfterCommit(List<EndpointHit> hits) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(hits);
+                }
+            });
+        } else {
+            record(hits);
+        }
+    }
+
+    public List<ViewStats> sumPending(LocalDateTime fromBucket, LocalDateTime toBucketExclusive, String[] uris) {
+        Set<String> uriFilter = uris == null ? null : new HashSet<>(Arrays.asList(uris));
+        Map<String, ViewStats> sums = new HashMap<>();
+        for (Map<RollupKey, Long> part : List.of(pending, flushing)) {
+            part.forEach((key, hits) -> {
+                if (!inRange(key, fromBucket, toBucketExclusive) || uriFilter != null && !uriFilter.contains(key.uri())) {
+                    return;
+                }
+                sums.merge(StatsSketchRepository.key(key.app(), key.uri()), ViewStats.builder()
+                        .app(key.app())
+                        .uri(key.uri())
+                        .hits(hits.intValue())
+                        .build(), (old, added) -> ViewStats.builder()
+                        .app(old.getApp())
+                        .uri(old.getUri())
+                        .hits(old.getHits() + added.getHits())
+                        .build());
+            });
+        }
+        return new ArrayList<>(sums.values());
+    }
+
+    public boolean hasPending(LocalDateTime fromBucket, LocalDateTime toBucketExclusive) {
+        for (Map<RollupKey, Long> part : List.of(pending, flushing)) {
+            for (RollupKey key : part.keySet()) {
+                if (inRange(key, fromBucket, toBucketExclusive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.rollup.flush-interval-ms:5000}",
+            initialDelayString = "${stats.rollup.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        SortedMap<RollupKey, Long> drained = new TreeMap<>();
+        for (RollupKey key : pending.keySet()) {
+            Long hits = pending.remove(key);
+            if (hits != null) {
+                drained.put(key, hits);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        flushing = drained;
+        try {
+            transactionTemplate.executeWithoutResult(status -> statsRollupRepository.addHits(drained));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} hit rollups, keeping them for the next flush: {}", drained.size(),
+                    e.getMessage());
+            drained.forEach((key, hits) -> pending.merge(key, hits, Long::sum));
+        } finally {
+            flushing = Collections.emptySortedMap();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(List<EndpointHit> hits) {
+        for (EndpointHit hit : hits) {
+            pending.merge(new RollupKey(hit.getApp(), hit.getUri(), StatsRollupRepository.bucketOf(hit.getTimestamp())),
+                    1L, Long::sum);
+        }
+    }
+
+    private static boolean inRange(RollupKey key, LocalDateTime fromBucket, LocalDateTime toBucketExclusive) {
+        return !key.bucket().isBefore(fromBucket) && key.bucket().isBefore(toBucketExclusive);
+    }
+}
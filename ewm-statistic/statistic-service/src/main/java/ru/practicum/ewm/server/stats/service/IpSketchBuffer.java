@@ -0,0 +1,110 @@
+package ru.practicum.ewm.server.stats.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+import ru.practicum.ewm.server.stats.repository.StatsSketchRepository;
+import ru.practicum.ewm.server.stats.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IpSketchBuffer {
+
+    private final StatsSketchRepository statsSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<SketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public void recordAfterCommit(List<EndpointHit> hits) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(hits);
+                }
+            });
+        } else {
+            record(hits);
+        }
+    }
+
+    public void mergePending(Map<String, HyperLogLog> target, LocalDateTime fromDay, LocalDateTime toDayExclusive,
+                             String[] uris) {
+        Set<String> uriFilter = uris == null ? null : new HashSet<>(Arrays.asList(uris));
+        for (SketchKey key : pending.keySet()) {
+            if (key.day().isBefore(fromDay) || !key.day().isBefore(toDayExclusive)
+                    || uriFilter != null && !uriFilter.contains(key.uri())) {
+                continue;
+            }
+            pending.computeIfPresent(key, (sketchKey, sketch) -> {
+                target.computeIfAbsent(StatsSketchRepository.key(key.app(), key.uri()), k -> new HyperLogLog())
+                        .merge(sketch);
+                return sketch;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.sketch.flush-interval-ms:5000}",
+            initialDelayString = "${stats.sketch.flush-interval-ms:5000}")
+    public void flush() {
+        Map<SketchKey, HyperLogLog> drained = new TreeMap<>();
+        for (SketchKey key : pending.keySet()) {
+            HyperLogLog sketch = pending.remove(key);
+            if (sketch != null) {
+                drained.put(key, sketch);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> drained.forEach((key, sketch) ->
+                    statsSketchRepository.mergeSketch(key.app(), key.uri(), key.day(), sketch)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} ip sketches, keeping them for the next flush: {}", drained.size(),
+                    e.getMessage());
+            drained.forEach((key, sketch) -> pending.merge(key, sketch, (current, restored) -> {
+                current.merge(restored);
+                return current;
+            }));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(List<EndpointHit> hits) {
+        for (EndpointHit hit : hits) {
+            SketchKey key = new SketchKey(hit.getApp(), hit.getUri(), StatsSketchRepository.dayOf(hit.getTimestamp()));
+            pending.compute(key, (sketchKey, sketch) -> {
+                HyperLogLog updated = sketch == null ? new HyperLogLog() : sketch;
+                updated.add(hit.getIp());
+                return updated;
+            });
+        }
+    }
+
+    private record SketchKey(String app, String uri, LocalDateTime day) implements Comparable<SketchKey> {
+
+        private static final Comparator<SketchKey> ORDER = Comparator.comparing(SketchKey::app)
+                .thenComparing(SketchKey::uri)
+                .thenComparing(SketchKey::day);
+
+        @Override
+        public int compareTo(SketchKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
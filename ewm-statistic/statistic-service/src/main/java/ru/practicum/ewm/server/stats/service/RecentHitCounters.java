@@ -0,0 +1,130 @@
+package ru.practicum.ewm.server.stats.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Component
+public class RecentHitCounters {
+
+    public static final ChronoUnit COUNTER_UNIT = ChronoUnit.MINUTES;
+
+    private static final long SECONDS_PER_MINUTE = 60;
+
+    private final boolean enabled;
+    private final int horizonMinutes;
+    private final long coverageStartMinute;
+    private final Slot[] slots;
+
+    public RecentHitCounters(@Value("${stats.recent.enabled:true}") boolean enabled,
+                             @Value("${stats.recent.horizon-minutes:1440}") int horizonMinutes) {
+        this.enabled = enabled;
+        this.horizonMinutes = horizonMinutes;
+        this.coverageStartMinute = minuteOf(LocalDateTime.now()) + 1;
+        this.slots = new Slot[horizonMinutes];
+        for (int i = 0; i < horizonMinutes; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public static LocalDateTime minuteStartOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(COUNTER_UNIT);
+    }
+
+    public void recordAfterCommit(List<EndpointHit> hits) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(hits);
+                }
+            });
+        } else {
+            record(hits);
+        }
+    }
+
+    public boolean covers(LocalDateTime fromMinute, LocalDateTime toMinuteExclusive) {
+        long currentMinute = minuteOf(LocalDateTime.now());
+        long from = minuteOf(fromMinute);
+        return enabled
+                && from >= coverageStartMinute
+                && from > currentMinute - horizonMinutes + 1
+                && minuteOf(toMinuteExclusive) <= currentMinute + 1;
+    }
+
+    public List<ViewStats> sumHits(LocalDateTime fromMinute, LocalDateTime toMinuteExclusive, String[] uris) {
+        Set<String> uriFilter = uris == null ? null : new HashSet<>(Arrays.asList(uris));
+        Map<HitKey, Long> sums = new HashMap<>();
+        for (long minute = minuteOf(fromMinute); minute < minuteOf(toMinuteExclusive); minute++) {
+            Slot slot = slotOf(minute);
+            synchronized (slot) {
+                if (slot.minute != minute) {
+                    continue;
+                }
+                slot.counts.forEach((key, count) -> {
+                    if (uriFilter == null || uriFilter.contains(key.uri())) {
+                        sums.merge(key, count, Long::sum);
+                    }
+                });
+            }
+        }
+        List<ViewStats> list = new ArrayList<>(sums.size());
+        sums.forEach((key, hits) -> list.add(ViewStats.builder()
+                .app(key.app())
+                .uri(key.uri())
+                .hits(hits.intValue())
+                .build()));
+        return list;
+    }
+
+    private void record(List<EndpointHit> hits) {
+        long currentMinute = minuteOf(LocalDateTime.now());
+        Map<Long, Map<HitKey, Long>> countsByMinute = new HashMap<>();
+        for (EndpointHit hit : hits) {
+            long minute = minuteOf(hit.getTimestamp());
+            if (minute > currentMinute || minute <= currentMinute - horizonMinutes) {
+                continue;
+            }
+            countsByMinute.computeIfAbsent(minute, key -> new HashMap<>())
+                    .merge(new HitKey(hit.getApp(), hit.getUri()), 1L, Long::sum);
+        }
+        countsByMinute.forEach((minute, counts) -> {
+            Slot slot = slotOf(minute);
+            synchronized (slot) {
+                if (slot.minute != minute) {
+                    slot.counts.clear();
+                    slot.minute = minute;
+                }
+                counts.forEach((key, count) -> slot.counts.merge(key, count, Long::sum));
+            }
+        });
+    }
+
+    private Slot slotOf(long minute) {
+        return slots[(int) Math.floorMod(minute, (long) horizonMinutes)];
+    }
+
+    private static long minuteOf(LocalDateTime timestamp) {
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE);
+    }
+
+    private record HitKey(String app, String uri) {
+    }
+
+    private static final class Slot {
+        private final Map<HitKey, Long> counts = new HashMap<>();
+        private long minute = Long.MIN_VALUE;
+    }
+}
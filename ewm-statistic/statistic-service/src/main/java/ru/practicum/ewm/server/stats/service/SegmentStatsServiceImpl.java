@@ -0,0 +1,97 @@
+package ru.practicum.ewm.server.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.practicum.ewm.dto.stats.EndpointHitBatchResult;
+import ru.practicum.ewm.dto.stats.EndpointHitDto;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.StatsMapper;
+import ru.practicum.ewm.server.stats.exception.InvalidRequestException;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+import ru.practicum.ewm.server.stats.segment.SegmentHitStore;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.storage", havingValue = "segment")
+public class SegmentStatsServiceImpl implements StatsService {
+    private final SegmentHitStore segmentHitStore;
+    private final TopUrisTracker topUrisTracker;
+
+    @Override
+    public EndpointHitDto addRequest(EndpointHitDto endpointHitDto) {
+        EndpointHit endpointHit = StatsMapper.toEndpointHit(endpointHitDto);
+        endpointHit.setId(segmentHitStore.append(endpointHit));
+        topUrisTracker.record(List.of(endpointHit));
+        return StatsMapper.toEndpointHitDto(endpointHit);
+    }
+
+    @Override
+    public EndpointHitBatchResult addRequests(List<EndpointHitDto> endpointHitDtos) {
+        List<EndpointHit> hits = new ArrayList<>(endpointHitDtos.size());
+        for (EndpointHitDto endpointHitDto : endpointHitDtos) {
+            if (endpointHitDto == null || endpointHitDto.getApp() == null || endpointHitDto.getUri() == null
+                    || endpointHitDto.getIp() == null || endpointHitDto.getTimestamp() == null) {
+                continue;
+            }
+            try {
+                hits.add(StatsMapper.toEndpointHit(endpointHitDto));
+            } catch (DateTimeParseException e) {
+                log.warn("Skipping hit with invalid timestamp {}", endpointHitDto.getTimestamp());
+            } catch (InvalidRequestException e) {
+                log.warn("Skipping hit: {}", e.getMessage());
+            }
+        }
+        int saved = segmentHitStore.appendAll(hits);
+        topUrisTracker.record(hits);
+        return EndpointHitBatchResult.builder()
+                .received(endpointHitDtos.size())
+                .saved(saved)
+                .rejected(endpointHitDtos.size() - hits.size())
+                .build();
+    }
+
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique) {
+        return getStats(start, end, uris, unique, false);
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique,
+                            Consumer<ViewStats> consumer) {
+        validateRange(start, end);
+        segmentHitStore.getStats(start, end, uris, unique).forEach(consumer);
+    }
+
+    @Override
+    public List<ViewStats> getTop(int hours, int limit) {
+        return topUrisTracker.top(hours, limit);
+    }
+
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique,
+                                    boolean approximate) {
+        validateRange(start, end);
+        return segmentHitStore.getStats(start, end, uris, unique);
+    }
+
+    private void validateRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            throw new InvalidRequestException("Start date must not be null");
+        }
+        if (end == null) {
+            throw new InvalidRequestException("End date must not be null");
+        }
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("Start date must be before or equal to end date");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.ewm.server.stats.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.server.stats.repository.StatsPartitionRepository;
+import ru.practicum.ewm.server.stats.repository.StatsRollupRepository;
+import ru.practicum.ewm.server.stats.repository.StatsSketchRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Slf4j
+@Component
+public class StatsPartitionMaintainer {
+
+    private final StatsPartitionRepository partitionRepository;
+    private final StatsRollupRepository rollupRepository;
+    private final StatsSketchRepository sketchRepository;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public StatsPartitionMaintainer(StatsPartitionRepository partitionRepository,
+                                    StatsRollupRepository rollupRepository,
+                                    StatsSketchRepository sketchRepository,
+                                    @Value("${stats.partitions.enabled:true}") boolean enabled,
+                                    @Value("${stats.partitions.months-ahead:2}") int monthsAhead,
+                                    @Value("${stats.partitions.retention-months:12}") int retentionMonths) {
+        this.partitionRepository = partitionRepository;
+        this.rollupRepository = rollupRepository;
+        this.sketchRepository = sketchRepository;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${stats.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                int moved = partitionRepository.createMonthPartition(month);
+                if (moved > 0) {
+                    log.info("Moved {} hits for {} from the default endpointhit partition", moved, month);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Failed to create endpointhit partition for {}: {}", month, e.getMessage());
+            }
+        }
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1);
+        for (YearMonth month : partitionRepository.findMonthPartitions()) {
+            if (month.isBefore(oldestKept)) {
+                partitionRepository.dropMonthPartition(month);
+                log.info("Dropped endpointhit partition for {} (retention {} months)", month, retentionMonths);
+            }
+        }
+        LocalDateTime cutoff = oldestKept.atDay(1).atStartOfDay();
+        int hits = partitionRepository.deleteDefaultPartitionHitsBefore(cutoff);
+        int rollups = rollupRepository.deleteBefore(cutoff);
+        int sketches = sketchRepository.deleteBefore(cutoff);
+        if (hits + rollups + sketches > 0) {
+            log.info("Deleted {} default-partition hits, {} hourly rollups and {} daily ip sketches before {}",
+                    hits, rollups, sketches, cutoff);
+        }
+    }
+}
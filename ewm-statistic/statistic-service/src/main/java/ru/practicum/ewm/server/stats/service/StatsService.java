@@ -1,14 +1,25 @@
 package ru.practicum.ewm.server.stats.service;
 
+import ru.practicum.ewm.dto.stats.EndpointHitBatchResult;
 import ru.practicum.ewm.dto.stats.EndpointHitDto;
 import ru.practicum.ewm.dto.stats.ViewStats;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StatsService {
 
     EndpointHitDto addRequest(EndpointHitDto endpointHitDto);
 
+    EndpointHitBatchResult addRequests(List<EndpointHitDto> endpointHitDtos);
+
     List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique);
-}
\ No newline at end of file
+
+    List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique, boolean approximate);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique,
+                     Consumer<ViewStats> consumer);
+
+    List<ViewStats> getTop(int hours, int limit);
+}
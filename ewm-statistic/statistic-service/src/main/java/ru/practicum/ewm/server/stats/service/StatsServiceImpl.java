@@ -2,36 +2,224 @@ package ru.practicum.ewm.server.stats.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.dto.stats.EndpointHitBatchResult;
 import ru.practicum.ewm.dto.stats.EndpointHitDto;
 import ru.practicum.ewm.dto.stats.ViewStats;
 import ru.practicum.ewm.server.stats.StatsMapper;
 import ru.practicum.ewm.server.stats.exception.InvalidRequestException;
 import ru.practicum.ewm.server.stats.model.EndpointHit;
+import ru.practicum.ewm.server.stats.repository.StatsBatchRepository;
 import ru.practicum.ewm.server.stats.repository.StatsRepository;
+import ru.practicum.ewm.server.stats.repository.StatsRollupRepository;
+import ru.practicum.ewm.server.stats.repository.StatsSketchRepository;
+import ru.practicum.ewm.server.stats.sketch.HyperLogLog;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.storage", havingValue = "database", matchIfMissing = true)
 public class StatsServiceImpl implements StatsService {
     private final StatsRepository statsRepository;
+    private final StatsBatchRepository statsBatchRepository;
+    private final StatsRollupRepository statsRollupRepository;
+    private final StatsSketchRepository statsSketchRepository;
+    private final TopUrisTracker topUrisTracker;
+    private final RecentHitCounters recentHitCounters;
+    private final IpSketchBuffer ipSketchBuffer;
+    private final HitRollupBuffer hitRollupBuffer;
 
     @Transactional
     @Override
     public EndpointHitDto addRequest(EndpointHitDto endpointHitDto) {
         EndpointHit endpointHit = StatsMapper.toEndpointHit(endpointHitDto);
+        EndpointHit saved = statsRepository.save(endpointHit);
+        topUrisTracker.recordAfterCommit(List.of(saved));
+        recentHitCounters.recordAfterCommit(List.of(saved));
+        ipSketchBuffer.recordAfterCommit(List.of(saved));
+        hitRollupBuffer.recordAfterCommit(List.of(saved));
+        return StatsMapper.toEndpointHitDto(saved);
+    }
 
-        return StatsMapper.toEndpointHitDto(statsRepository.save(endpointHit));
+    @Transactional
+    @Override
+    public EndpointHitBatchResult addRequests(List<EndpointHitDto> endpointHitDtos) {
+        List<EndpointHit> hits = new ArrayList<>(endpointHitDtos.size());
+        for (EndpointHitDto endpointHitDto : endpointHitDtos) {
+            if (endpointHitDto == null || endpointHitDto.getApp() == null || endpointHitDto.getUri() == null
+                    || endpointHitDto.getIp() == null || endpointHitDto.getTimestamp() == null) {
+                continue;
+            }
+            try {
+                hits.add(StatsMapper.toEndpointHit(endpointHitDto));
+            } catch (DateTimeParseException e) {
+                log.warn("Skipping hit with invalid timestamp {}", endpointHitDto.getTimestamp());
+            } catch (InvalidRequestException e) {
+                log.warn("Skipping hit: {}", e.getMessage());
+            }
+        }
+        int saved = statsBatchRepository.saveAll(hits);
+        topUrisTracker.recordAfterCommit(hits);
+        recentHitCounters.recordAfterCommit(hits);
+        ipSketchBuffer.recordAfterCommit(hits);
+        hitRollupBuffer.recordAfterCommit(hits);
+        return EndpointHitBatchResult.builder()
+                .received(endpointHitDtos.size())
+                .saved(saved)
+                .rejected(endpointHitDtos.size() - hits.size())
+                .build();
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique) {
+        return getStats(start, end, uris, unique, false);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique,
+                            Consumer<ViewStats> consumer) {
+        validateRange(start, end);
+        statsRepository.streamStats(start, end, uris, unique,
+                !hitRollupBuffer.hasPending(StatsRollupRepository.bucketOf(start), end), consumer);
+    }
+
+    @Override
+    public List<ViewStats> getTop(int hours, int limit) {
+        return topUrisTracker.top(hours, limit);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique,
+                                    boolean approximate) {
+
+        validateRange(start, end);
+
+        if (!unique) {
+            List<ViewStats> recent = getHitsFromRecentCounters(start, end, uris);
+            return recent != null ? recent : getHitsFromRollups(start, end, uris);
+        }
+
+        if (approximate) {
+            return getUniqueFromSketches(start, end, uris);
+        }
+
+        List<ViewStats> list;
+        if (uris != null) {
+            list = statsRepository.requestUniqueIpStats(start, end, uris);
+        } else {
+            list = statsRepository.requestUniqueIpAllStats(start, end);
+        }
+        return list;
+    }
+
+    private List<ViewStats> getHitsFromRecentCounters(LocalDateTime start, LocalDateTime end, String[] uris) {
+        LocalDateTime firstFullMinute = RecentHitCounters.minuteStartOf(start);
+        if (firstFullMinute.isBefore(start)) {
+            firstFullMinute = firstFullMinute.plus(1, RecentHitCounters.COUNTER_UNIT);
+        }
+        LocalDateTime lastFullMinuteEnd = RecentHitCounters.minuteStartOf(end);
+        if (!firstFullMinute.isBefore(lastFullMinuteEnd) || !recentHitCounters.covers(firstFullMinute, lastFullMinuteEnd)) {
+            return null;
+        }
+
+        Map<String, ViewStats> merged = new HashMap<>();
+        if (start.isBefore(firstFullMinute)) {
+            mergeHits(merged, uris != null
+                    ? statsRepository.requestStatsBefore(start, firstFullMinute, uris)
+                    : statsRepository.requestAllStatsBefore(start, firstFullMinute));
+        }
+        mergeHits(merged, recentHitCounters.sumHits(firstFullMinute, lastFullMinuteEnd, uris));
+        mergeHits(merged, uris != null
+                ? statsRepository.requestStats(lastFullMinuteEnd, end, uris)
+                : statsRepository.requestAllStats(lastFullMinuteEnd, end));
+
+        List<ViewStats> list = new ArrayList<>(merged.values());
+        list.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return list;
+    }
+
+    private List<ViewStats> getHitsFromRollups(LocalDateTime start, LocalDateTime end, String[] uris) {
+        LocalDateTime firstFullBucket = StatsRollupRepository.bucketOf(start);
+        if (firstFullBucket.isBefore(start)) {
+            firstFullBucket = firstFullBucket.plus(1, StatsRollupRepository.BUCKET_UNIT);
+        }
+        LocalDateTime lastFullBucketEnd = StatsRollupRepository.bucketOf(end);
+
+        if (!firstFullBucket.isBefore(lastFullBucketEnd)) {
+            return uris != null
+                    ? statsRepository.requestStats(start, end, uris)
+                    : statsRepository.requestAllStats(start, end);
+        }
+
+        Map<String, ViewStats> merged = new HashMap<>();
+        mergeHits(merged, uris != null
+                ? statsRepository.requestStatsBefore(start, firstFullBucket, uris)
+                : statsRepository.requestAllStatsBefore(start, firstFullBucket));
+        mergeHits(merged, statsRollupRepository.sumHits(firstFullBucket, lastFullBucketEnd, uris));
+        mergeHits(merged, hitRollupBuffer.sumPending(firstFullBucket, lastFullBucketEnd, uris));
+        mergeHits(merged, uris != null
+                ? statsRepository.requestStats(lastFullBucketEnd, end, uris)
+                : statsRepository.requestAllStats(lastFullBucketEnd, end));
+
+        List<ViewStats> list = new ArrayList<>(merged.values());
+        list.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return list;
+    }
+
+    private List<ViewStats> getUniqueFromSketches(LocalDateTime start, LocalDateTime end, String[] uris) {
+        LocalDateTime firstFullDay = StatsSketchRepository.dayOf(start);
+        if (firstFullDay.isBefore(start)) {
+            firstFullDay = firstFullDay.plus(1, StatsSketchRepository.SKETCH_UNIT);
+        }
+        LocalDateTime lastFullDayEnd = StatsSketchRepository.dayOf(end);
+
+        if (!firstFullDay.isBefore(lastFullDayEnd)) {
+            return uris != null
+                    ? statsRepository.requestUniqueIpStats(start, end, uris)
+                    : statsRepository.requestUniqueIpAllStats(start, end);
+        }
+
+        Map<String, HyperLogLog> merged = new HashMap<>();
+        statsSketchRepository.mergeRawIps(merged, start, firstFullDay, uris);
+        statsSketchRepository.mergeSketches(merged, firstFullDay, lastFullDayEnd, uris);
+        ipSketchBuffer.mergePending(merged, firstFullDay, lastFullDayEnd, uris);
+        statsSketchRepository.mergeRawIps(merged, lastFullDayEnd, end.plusNanos(1), uris);
 
+        List<ViewStats> list = new ArrayList<>(merged.size());
+        merged.forEach((key, sketch) -> {
+            int separator = key.indexOf('\n');
+            list.add(ViewStats.builder()
+                    .app(key.substring(0, separator))
+                    .uri(key.substring(separator + 1))
+                    .hits((int) sketch.cardinality())
+                    .build());
+        });
+        list.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return list;
+    }
+
+    private void mergeHits(Map<String, ViewStats> merged, List<ViewStats> part) {
+        for (ViewStats viewStats : part) {
+            merged.merge(StatsSketchRepository.key(viewStats.getApp(), viewStats.getUri()), viewStats,
+                    (old, added) -> ViewStats.builder()
+                            .app(old.getApp())
+                            .uri(old.getUri())
+                            .hits(old.getHits() + added.getHits())
+                            .build());
+        }
+    }
+
+    private void validateRange(LocalDateTime start, LocalDateTime end) {
         if (start == null) {
             throw new InvalidRequestException("Start date must not be null");
         }
@@ -41,23 +229,5 @@ public class StatsServiceImpl implements StatsService {
         if (start.isAfter(end)) {
             throw new InvalidRequestException("Start date must be before or equal to end date");
         }
-
-        List<ViewStats> list;
-
-        if (!unique) {
-            if (uris != null) {
-                list = statsRepository.requestStats(start, end, uris);
-            } else {
-                list = statsRepository.requestAllStats(start, end);
-            }
-        } else {
-            if (uris != null) {
-                list = statsRepository.requestUniqueIpStats(start, end, uris);
-            } else {
-                list = statsRepository.requestUniqueIpAllStats(start, end);
-            }
-        }
-        return list;
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package ru.practicum.ewm.server.stats.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.exception.InvalidRequestException;
+import ru.practicum.ewm.server.stats.model.EndpointHit;
+import ru.practicum.ewm.server.stats.sketch.SpaceSaving;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class TopUrisTracker {
+
+    private static final long SECONDS_PER_HOUR = 3600;
+
+    private final int horizonHours;
+    private final int capacity;
+    private final Slot[] slots;
+    private final AtomicLong pastHourWrites = new AtomicLong();
+    private final Map<Integer, ClosedHours> closedHoursCache = new ConcurrentHashMap<>();
+
+    public TopUrisTracker(@Value("${stats.top.horizon-hours:24}") int horizonHours,
+                          @Value("${stats.top.capacity:1000}") int capacity) {
+        this.horizonHours = horizonHours;
+        this.capacity = capacity;
+        this.slots = new Slot[horizonHours];
+        for (int i = 0; i < horizonHours; i++) {
+            slots[i] = new Slot(new SpaceSaving(capacity));
+        }
+    }
+
+    public int getHorizonHours() {
+        return horizonHours;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void recordAfterCommit(List<EndpointHit> hits) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(hits);
+                }
+            });
+        } else {
+            record(hits);
+        }
+    }
+
+    public void record(List<EndpointHit> hits) {
+        long currentHour = hourOf(LocalDateTime.now());
+        Map<Long, Map<String, Long>> countsByHour = new HashMap<>();
+        for (EndpointHit hit : hits) {
+            long hour = hourOf(hit.getTimestamp());
+            if (hour > currentHour || hour <= currentHour - horizonHours) {
+                continue;
+            }
+            countsByHour.computeIfAbsent(hour, key -> new HashMap<>()).merge(key(hit), 1L, Long::sum);
+        }
+        countsByHour.forEach((hour, counts) -> {
+            Slot slot = slotOf(hour);
+            synchronized (slot) {
+                if (slot.hour != hour) {
+                    slot.summary.clear();
+                    slot.hour = hour;
+                }
+                counts.forEach(slot.summary::add);
+            }
+            if (hour < currentHour) {
+                pastHourWrites.incrementAndGet();
+            }
+        });
+    }
+
+    public List<ViewStats> top(int hours, int limit) {
+        if (hours < 1 || hours > horizonHours) {
+            throw new InvalidRequestException("Hours must be between 1 and " + horizonHours);
+        }
+        if (limit < 1 || limit > capacity) {
+            throw new InvalidRequestException("N must be between 1 and " + capacity);
+        }
+        long currentHour = hourOf(LocalDateTime.now());
+        ClosedHours closed = closedHours(hours, currentHour);
+        Map<String, Long> candidates = new HashMap<>();
+        Slot current = slotOf(currentHour);
+        synchronized (current) {
+            if (current.hour == currentHour) {
+                current.summary.addTo(candidates);
+            }
+        }
+        candidates.replaceAll((key, count) -> count + closed.counts().getOrDefault(key, 0L));
+        int prefix = Math.min(closed.ranked().size(), limit + candidates.size());
+        for (int i = 0; i < prefix; i++) {
+            Map.Entry<String, Long> entry = closed.ranked().get(i);
+            candidates.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        PriorityQueue<Map.Entry<String, Long>> best = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (entry.getValue() > best.peek().getValue()) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<ViewStats> list = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Map.Entry<String, Long> entry = best.poll();
+            int separator = entry.getKey().indexOf('\n');
+            list.add(ViewStats.builder()
+                    .app(entry.getKey().substring(0, separator))
+                    .uri(entry.getKey().substring(separator + 1))
+                    .hits((int) Math.min(entry.getValue(), Integer.MAX_VALUE))
+                    .build());
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    private ClosedHours closedHours(int hours, long currentHour) {
+        long writes = pastHourWrites.get();
+        ClosedHours cached = closedHoursCache.get(hours);
+        if (cached != null && cached.currentHour() == currentHour && cached.pastHourWrites() == writes) {
+            return cached;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (long hour = currentHour - hours + 1; hour < currentHour; hour++) {
+            Slot slot = slotOf(hour);
+            synchronized (slot) {
+                if (slot.hour == hour) {
+                    slot.summary.addTo(counts);
+                }
+            }
+        }
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(counts.entrySet());
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        ClosedHours closed = new ClosedHours(currentHour, writes, counts, ranked);
+        closedHoursCache.put(hours, closed);
+        return closed;
+    }
+
+    private Slot slotOf(long hour) {
+        return slots[(int) Math.floorMod(hour, (long) horizonHours)];
+    }
+
+    private static long hourOf(LocalDateTime timestamp) {
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static String key(EndpointHit hit) {
+        return hit.getApp() + '\n' + hit.getUri();
+    }
+
+    private record ClosedHours(long currentHour, long pastHourWrites, Map<String, Long> counts,
+                               List<Map.Entry<String, Long>> ranked) {
+    }
+
+    private static final class Slot {
+        private final SpaceSaving summary;
+        private long hour = Long.MIN_VALUE;
+
+        private Slot(SpaceSaving summary) {
+            this.summary = summary;
+        }
+    }
+}
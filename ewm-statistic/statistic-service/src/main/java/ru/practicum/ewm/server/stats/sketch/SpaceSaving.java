@@ -0,0 +1,106 @@
+package ru.practicum.ewm.server.stats.sketch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary with a fixed number of counters kept in an indexed min-heap.
+ * An untracked key replaces the smallest counter and inherits its count, so a reported count
+ * overestimates the true one by at most the smallest tracked count. Every key whose true count
+ * exceeds total / capacity is guaranteed to be tracked.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, long increment) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += increment;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = increment;
+            positions.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        positions.remove(keys[0]);
+        keys[0] = key;
+        counts[0] += increment;
+        positions.put(key, 0);
+        siftDown(0);
+    }
+
+    public void addTo(Map<String, Long> target) {
+        for (int i = 0; i < size; i++) {
+            target.merge(keys[i], counts[i], Long::sum);
+        }
+    }
+
+    public void clear() {
+        positions.clear();
+        for (int i = 0; i < size; i++) {
+            keys[i] = null;
+            counts[i] = 0;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        String key = keys[first];
+        keys[first] = keys[second];
+        keys[second] = key;
+        long count = counts[first];
+        counts[first] = counts[second];
+        counts[second] = count;
+        positions.put(keys[first], first);
+        positions.put(keys[second], second);
+    }
+}
@@ -0,0 +1,37 @@
+ALTER TABLE endpointhit RENAME TO endpointhit_legacy;
+
+CREATE TABLE endpointhit (
+    id BIGSERIAL,
+    app VARCHAR(50) NOT NULL,
+    uri VARCHAR(1000) NOT NULL,
+    ip VARCHAR(50) NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_endpointhit PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX endpointhit_uri_timestamp_idx ON endpointhit (uri, timestamp);
+
+CREATE INDEX endpointhit_timestamp_idx ON endpointhit (timestamp);
+
+CREATE TABLE endpointhit_default PARTITION OF endpointhit DEFAULT;
+
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', timestamp) FROM endpointhit_legacy WHERE timestamp IS NOT NULL
+        UNION
+        SELECT date_trunc('month', LOCALTIMESTAMP)
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF endpointhit FOR VALUES FROM (%L) TO (%L)',
+                       'endpointhit_p' || to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO endpointhit (id, app, uri, ip, timestamp)
+SELECT id, app, uri, ip, timestamp FROM endpointhit_legacy WHERE timestamp IS NOT NULL;
+
+SELECT setval(pg_get_serial_sequence('endpointhit', 'id'), COALESCE((SELECT MAX(id) FROM endpointhit_legacy), 0) + 1, false);
+
+DROP TABLE endpointhit_legacy;
@@ -0,0 +1,74 @@
+CREATE TABLE stats_app (
+    id SERIAL PRIMARY KEY,
+    app VARCHAR(50) NOT NULL,
+    CONSTRAINT uq_stats_app UNIQUE (app)
+);
+
+CREATE TABLE stats_uri (
+    id SERIAL PRIMARY KEY,
+    uri VARCHAR(1000) NOT NULL,
+    CONSTRAINT uq_stats_uri UNIQUE (uri)
+);
+
+INSERT INTO stats_app (app) SELECT DISTINCT app FROM endpointhit ORDER BY app;
+
+INSERT INTO stats_uri (uri) SELECT DISTINCT uri FROM endpointhit ORDER BY uri;
+
+DROP INDEX endpointhit_uri_timestamp_idx;
+
+DROP INDEX endpointhit_timestamp_idx;
+
+ALTER TABLE endpointhit RENAME CONSTRAINT pk_endpointhit TO pk_endpointhit_legacy;
+
+ALTER TABLE endpointhit RENAME TO endpointhit_legacy;
+
+CREATE TABLE endpointhit (
+    id BIGINT NOT NULL,
+    app_id INTEGER NOT NULL,
+    uri_id INTEGER NOT NULL,
+    ip INET,
+    legacy_ip VARCHAR(50),
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_endpointhit PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE FUNCTION stats_to_inet(value VARCHAR) RETURNS INET AS $$
+BEGIN
+    RETURN value::inet;
+EXCEPTION WHEN invalid_text_representation THEN
+    RETURN NULL;
+END $$ LANGUAGE plpgsql IMMUTABLE;
+
+DO $$
+DECLARE
+    id_sequence TEXT := pg_get_serial_sequence('endpointhit_legacy', 'id');
+    legacy_partition RECORD;
+BEGIN
+    FOR legacy_partition IN
+        SELECT child.relname AS name, pg_get_expr(child.relpartbound, child.oid) AS bound
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'endpointhit_legacy'
+    LOOP
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', legacy_partition.name, legacy_partition.name || '_legacy');
+        EXECUTE format('CREATE TABLE %I PARTITION OF endpointhit %s', legacy_partition.name, legacy_partition.bound);
+    END LOOP;
+    EXECUTE format('ALTER TABLE endpointhit ALTER COLUMN id SET DEFAULT nextval(%L)', id_sequence);
+    EXECUTE format('ALTER SEQUENCE %s OWNED BY endpointhit.id', id_sequence);
+END $$;
+
+INSERT INTO endpointhit (id, app_id, uri_id, ip, legacy_ip, timestamp)
+SELECT legacy.id, stats_app.id, stats_uri.id, stats_to_inet(legacy.ip),
+       CASE WHEN stats_to_inet(legacy.ip) IS NULL THEN legacy.ip END, legacy.timestamp
+FROM endpointhit_legacy legacy
+JOIN stats_app ON stats_app.app = legacy.app
+JOIN stats_uri ON stats_uri.uri = legacy.uri;
+
+DROP TABLE endpointhit_legacy;
+
+DROP FUNCTION stats_to_inet(VARCHAR);
+
+CREATE INDEX endpointhit_uri_timestamp_idx ON endpointhit (uri_id, timestamp);
+
+CREATE INDEX endpointhit_timestamp_idx ON endpointhit (timestamp);
@@ -0,0 +1,92 @@
+package ru.practicum.ewm.server.stats.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.server.stats.repository.StatsPartitionRepository;
+import ru.practicum.ewm.server.stats.repository.StatsRollupRepository;
+import ru.practicum.ewm.server.stats.repository.StatsSketchRepository;
+import ru.practicum.ewm.server.stats.service.HitRollupBuffer;
+import ru.practicum.ewm.server.stats.service.IpSketchBuffer;
+import ru.practicum.ewm.server.stats.service.StatsPartitionMaintainer;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "stats.storage=database")
+class DatabaseStatsControllerTest extends StatsControllerContractTest {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private HitRollupBuffer hitRollupBuffer;
+
+    @Autowired
+    private IpSketchBuffer ipSketchBuffer;
+
+    @Autowired
+    private StatsPartitionRepository partitionRepository;
+
+    @Autowired
+    private StatsRollupRepository rollupRepository;
+
+    @Autowired
+    private StatsSketchRepository sketchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupCountsDoNotChangeWhenBufferIsFlushed() throws Exception {
+        addHits(hit("/events/1", "10.0.7.1", "2010-08-01 10:10:00"),
+                hit("/events/1", "10.0.7.2", "2010-08-01 11:10:00"),
+                hit("/events/2", "10.0.7.1", "2010-08-01 11:20:00"));
+        String start = "2010-08-01 00:00:00";
+        String end = "2010-08-01 23:59:59";
+        List<ViewStats> beforeFlush = getStats(start, end, null, false);
+        List<ViewStats> streamedBeforeFlush = streamStats(start, end, false);
+
+        hitRollupBuffer.flush();
+
+        assertThat(beforeFlush).containsExactly(stats("/events/1", 2), stats("/events/2", 1));
+        assertThat(streamedBeforeFlush).containsExactlyElementsOf(beforeFlush);
+        assertThat(getStats(start, end, null, false)).containsExactlyElementsOf(beforeFlush);
+        assertThat(streamStats(start, end, false)).containsExactlyElementsOf(beforeFlush);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(hits) FROM endpointhit_rollup " +
+                "WHERE bucket >= '2010-08-01' AND bucket < '2010-08-02'", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    void retentionAppliesToRollupsAndSketchesOfDroppedPartitions() throws Exception {
+        YearMonth current = YearMonth.now();
+        String[] uris = {"/events/retention"};
+        addHits(hit(uris[0], "10.0.8.1", monthDay(current.minusMonths(7))),
+                hit(uris[0], "10.0.8.2", monthDay(current.minusMonths(5))),
+                hit(uris[0], "10.0.8.3", monthDay(current.minusMonths(5))),
+                hit(uris[0], "10.0.8.1", monthDay(current.minusMonths(1))));
+        partitionRepository.createMonthPartition(current.minusMonths(5));
+        hitRollupBuffer.flush();
+        ipSketchBuffer.flush();
+        String start = current.minusMonths(8).atDay(1).atStartOfDay().format(FORMATTER);
+        String end = current.atDay(1).atStartOfDay().format(FORMATTER);
+        assertThat(getStats(start, end, uris, false)).containsExactly(stats(uris[0], 4));
+
+        new StatsPartitionMaintainer(partitionRepository, rollupRepository, sketchRepository, true, 0, 3).maintain();
+
+        assertThat(partitionRepository.findMonthPartitions()).doesNotContain(current.minusMonths(5));
+        assertThat(getStats(start, end, uris, false)).containsExactly(stats(uris[0], 1));
+        assertThat(getStats(start, end, uris, true)).containsExactly(stats(uris[0], 1));
+        assertThat(getStats(start, end, uris, true, true)).containsExactly(stats(uris[0], 1));
+        assertThat(streamStats(start, end, false)).contains(stats(uris[0], 1));
+    }
+
+    private static String monthDay(YearMonth month) {
+        return LocalDateTime.of(month.atDay(10), LocalTime.NOON).format(FORMATTER);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.ewm.server.stats.controller;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Path;
+
+@DirtiesContext
+@TestPropertySource(properties = "stats.storage=segment")
+class SegmentStatsControllerTest extends StatsControllerContractTest {
+
+    @TempDir
+    static Path segmentDirectory;
+
+    @DynamicPropertySource
+    static void segments(DynamicPropertyRegistry registry) {
+        registry.add("stats.segment.directory", () -> segmentDirectory.toString());
+    }
+}
@@ -0,0 +1,302 @@
+package ru.practicum.ewm.server.stats.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.ewm.dto.stats.EndpointHitBatchResult;
+import ru.practicum.ewm.dto.stats.EndpointHitDto;
+import ru.practicum.ewm.dto.stats.ViewStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+abstract class StatsControllerContractTest {
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final String APP = "ewm-main-service";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void addHitReturnsSavedHit() throws Exception {
+        EndpointHitDto saved = read(mockMvc.perform(post("/hit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hit("/events/1", "192.168.0.1", "2001-01-10 12:00:00"))))
+                .andExpect(status().isCreated())
+                .andReturn(), EndpointHitDto.class);
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getApp()).isEqualTo(APP);
+        assertThat(saved.getUri()).isEqualTo("/events/1");
+        assertThat(saved.getIp()).isEqualTo("192.168.0.1");
+        assertThat(saved.getTimestamp()).isEqualTo("2001-01-10 12:00:00");
+    }
+
+    @Test
+    void addHitRejectsInvalidIp() throws Exception {
+        mockMvc.perform(post("/hit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hit("/events/1", "not-an-ip", "2001-01-10 12:00:00"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void countsHitsPerUriOrderedByHits() throws Exception {
+        addHits(hit("/events/1", "10.0.0.1", "2002-03-01 09:20:00"),
+                hit("/events/1", "10.0.0.2", "2002-03-01 10:00:00"),
+                hit("/events/1", "10.0.0.1", "2002-03-01 11:30:00"),
+                hit("/events/2", "10.0.0.3", "2002-03-01 12:40:00"),
+                hit("/events/2", "10.0.0.3", "2002-03-01 12:45:00"),
+                hit("/events/3", "10.0.0.4", "2002-03-01 09:00:00"),
+                hit("/events/3", "10.0.0.4", "2002-03-01 13:00:00"));
+
+        assertThat(getStats("2002-03-01 09:15:00", "2002-03-01 12:45:00", null, false))
+                .containsExactly(stats("/events/1", 3), stats("/events/2", 2));
+    }
+
+    @Test
+    void countsUniqueIpsAcrossSeveralDays() throws Exception {
+        addHits(hit("/events/1", "10.0.1.1", "2003-05-01 08:00:00"),
+                hit("/events/1", "10.0.1.1", "2003-05-01 20:00:00"),
+                hit("/events/1", "10.0.1.2", "2003-05-02 10:00:00"),
+                hit("/events/1", "10.0.1.1", "2003-05-03 10:00:00"),
+                hit("/events/1", "10.0.1.3", "2003-05-04 11:00:00"),
+                hit("/events/1", "10.0.1.4", "2003-05-04 13:00:00"),
+                hit("/events/2", "10.0.1.5", "2003-05-02 10:00:00"),
+                hit("/events/2", "10.0.1.5", "2003-05-03 10:00:00"));
+
+        String start = "2003-05-01 12:00:00";
+        String end = "2003-05-04 12:00:00";
+        assertThat(getStats(start, end, null, true, false))
+                .containsExactly(stats("/events/1", 3), stats("/events/2", 1));
+        assertThat(getStats(start, end, null, true, true))
+                .containsExactly(stats("/events/1", 3), stats("/events/2", 1));
+        assertThat(getStats("2003-05-01 00:00:00", "2003-05-04 23:59:59", null, false))
+                .containsExactly(stats("/events/1", 6), stats("/events/2", 2));
+    }
+
+    @Test
+    void countsIpv6VisitorOnceWhateverTheTextForm() throws Exception {
+        addHits(hit("/events/1", "2001:0db8:0000:0000:0000:0000:0000:0001", "2011-03-01 18:00:00"),
+                hit("/events/1", "2001:DB8::1", "2011-03-02 10:00:00"),
+                hit("/events/1", "2001:db8:0:0:0:0:0:1", "2011-03-03 08:00:00"),
+                hit("/events/1", "::ffff:10.0.8.1", "2011-03-02 11:00:00"),
+                hit("/events/1", "10.0.8.1", "2011-03-03 09:00:00"));
+
+        String start = "2011-03-01 12:00:00";
+        String end = "2011-03-03 12:00:00";
+        assertThat(getStats(start, end, null, true, false)).containsExactly(stats("/events/1", 2));
+        assertThat(getStats(start, end, null, true, true)).containsExactly(stats("/events/1", 2));
+    }
+
+    @Test
+    void filtersByUris() throws Exception {
+        addHits(hit("/events/1", "10.0.2.1", "2004-07-01 10:00:00"),
+                hit("/events/1", "10.0.2.2", "2004-07-01 10:00:00"),
+                hit("/events/1", "10.0.2.3", "2004-07-01 10:00:00"),
+                hit("/events/2", "10.0.2.1", "2004-07-01 10:00:00"),
+                hit("/events/2", "10.0.2.1", "2004-07-01 10:00:00"),
+                hit("/events/3", "10.0.2.1", "2004-07-01 10:00:00"));
+
+        String start = "2004-07-01 00:00:00";
+        String end = "2004-07-01 23:59:59";
+        assertThat(getStats(start, end, new String[]{"/events/2"}, false))
+                .containsExactly(stats("/events/2", 2));
+        assertThat(getStats(start, end, new String[]{"/events/1", "/events/2"}, true))
+                .containsExactly(stats("/events/1", 3), stats("/events/2", 1));
+        assertThat(getStats(start, end, new String[]{"/events/4"}, false)).isEmpty();
+    }
+
+    @Test
+    void includesHitsExactlyOnRangeBoundaries() throws Exception {
+        addHits(hit("/events/1", "10.0.3.1", "2005-09-01 09:59:59"),
+                hit("/events/1", "10.0.3.2", "2005-09-01 10:00:00"),
+                hit("/events/1", "10.0.3.3", "2005-09-03 18:00:00"),
+                hit("/events/1", "10.0.3.4", "2005-09-03 18:00:01"));
+
+        assertThat(getStats("2005-09-01 10:00:00", "2005-09-03 18:00:00", null, false))
+                .containsExactly(stats("/events/1", 2));
+        assertThat(getStats("2005-09-01 10:00:00", "2005-09-03 18:00:00", null, true))
+                .containsExactly(stats("/events/1", 2));
+    }
+
+    @Test
+    void batchSkipsInvalidHits() throws Exception {
+        List<EndpointHitDto> batch = List.of(hit("/events/1", "10.0.4.1", "2006-02-01 10:00:00"),
+                hit("/events/1", "10.0.4.2", "2006-02-01 11:00:00"),
+                hit("/events/2", "10.0.4.1", "2006-02-01 12:00:00"),
+                hit("/events/2", null, "2006-02-01 12:00:00"),
+                hit("/events/2", "10.0.4.3", "yesterday"),
+                hit("/events/2", "not-an-ip", "2006-02-01 12:00:00"));
+
+        EndpointHitBatchResult result = read(mockMvc.perform(post("/hit/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andReturn(), EndpointHitBatchResult.class);
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getSaved()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(getStats("2006-02-01 00:00:00", "2006-02-01 23:59:59", null, false))
+                .containsExactly(stats("/events/1", 2), stats("/events/2", 1));
+    }
+
+    @Test
+    void ndjsonBatchRejectsUnparseableLinesOnly() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (EndpointHitDto hit : List.of(hit("/events/1", "10.0.5.1", "2007-04-01 10:00:00"),
+                hit("/events/1", "10.0.5.2", "2007-04-01 10:30:00"),
+                hit("/events/2", "10.0.5.1", "2007-04-02 10:00:00"))) {
+            body.append(objectMapper.writeValueAsString(hit)).append('\n');
+        }
+        body.append("{\"app\": oops}\n")
+                .append("\n")
+                .append(objectMapper.writeValueAsString(hit("/events/2", "10.0.5.2", "2007-04-02 11:00:00")))
+                .append("\r\n")
+                .append("{\"app\":\"").append(APP).append("\",\"uri\":[1]}\n")
+                .append(objectMapper.writeValueAsString(hit("/events/2", "not-an-ip", "2007-04-02 12:00:00")));
+
+        EndpointHitBatchResult result = read(mockMvc.perform(post("/hit/batch")
+                        .contentType(APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isCreated())
+                .andReturn(), EndpointHitBatchResult.class);
+
+        assertThat(result.getReceived()).isEqualTo(7);
+        assertThat(result.getSaved()).isEqualTo(4);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(getStats("2007-04-01 00:00:00", "2007-04-02 23:59:59", null, true))
+                .containsExactly(stats("/events/1", 2), stats("/events/2", 2));
+    }
+
+    @Test
+    void streamReturnsSameStatsAsList() throws Exception {
+        addHits(hit("/events/1", "10.0.6.1", "2008-06-01 10:00:00"),
+                hit("/events/1", "10.0.6.1", "2008-06-01 11:00:00"),
+                hit("/events/1", "10.0.6.2", "2008-06-02 11:00:00"),
+                hit("/events/2", "10.0.6.3", "2008-06-02 12:00:00"),
+                hit("/events/3", "10.0.6.3", "2008-06-03 12:00:00"),
+                hit("/events/3", "10.0.6.4", "2008-06-03 12:00:00"));
+
+        String start = "2008-06-01 00:00:00";
+        String end = "2008-06-03 23:59:59";
+        assertThat(streamStats(start, end, false)).containsExactlyInAnyOrderElementsOf(getStats(start, end, null, false));
+        assertThat(streamStats(start, end, true)).containsExactlyInAnyOrderElementsOf(getStats(start, end, null, true));
+    }
+
+    @Test
+    void rejectsStartAfterEnd() throws Exception {
+        mockMvc.perform(statsRequest("2009-01-02 00:00:00", "2009-01-01 00:00:00", null, false, false))
+                .andExpect(status().isBadRequest());
+    }
+
+    protected void addHits(EndpointHitDto... hits) throws Exception {
+        for (EndpointHitDto hit : hits) {
+            mockMvc.perform(post("/hit")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(hit)))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    protected List<ViewStats> getStats(String start, String end, String[] uris, boolean unique) throws Exception {
+        return getStats(start, end, uris, unique, false);
+    }
+
+    protected List<ViewStats> getStats(String start, String end, String[] uris, boolean unique,
+                                       boolean approximate) throws Exception {
+        MvcResult result = mockMvc.perform(statsRequest(start, end, uris, unique, approximate))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+    }
+
+    protected List<ViewStats> streamStats(String start, String end, boolean unique) throws Exception {
+        MvcResult async = mockMvc.perform(statsRequest(start, end, null, unique, false)
+                        .accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<ViewStats> stats = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            stats.add(objectMapper.readValue(line, ViewStats.class));
+        }
+        return stats;
+    }
+
+    private MockHttpServletRequestBuilder statsRequest(String start, String end, String[] uris, boolean unique,
+                                                       boolean approximate) {
+        MockHttpServletRequestBuilder request = get("/stats")
+                .param("start", start)
+                .param("end", end)
+                .param("unique", String.valueOf(unique))
+                .param("approximate", String.valueOf(approximate));
+        if (uris != null) {
+            request.param("uris", uris);
+        }
+        return request;
+    }
+
+    private <T> T read(MvcResult result, Class<T> type) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), type);
+    }
+
+    protected static EndpointHitDto hit(String uri, String ip, String timestamp) {
+        return EndpointHitDto.builder()
+                .app(APP)
+                .uri(uri)
+                .ip(ip)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    protected static ViewStats stats(String uri, int hits) {
+        return ViewStats.builder()
+                .app(APP)
+                .uri(uri)
+                .hits(hits)
+                .build();
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+}